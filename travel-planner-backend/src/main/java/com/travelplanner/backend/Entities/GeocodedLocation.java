@@ -0,0 +1,88 @@
+package com.travelplanner.backend.Entities;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreUpdate;
+import jakarta.persistence.Table;
+
+/**
+ * Resolved city coordinates, kept so a restarted node can geocode known cities without Nominatim.
+ */
+@Entity
+@Table(name = "geocoded_locations")
+public class GeocodedLocation {
+    // Normalized city name, the same key the in-memory geocoding cache uses
+    @Id
+    private String name;
+
+    private Double latitude;
+    private Double longitude;
+
+    @Column(columnDefinition = "TEXT")
+    private String displayName;
+
+    private String country;
+    private String type;
+
+    // Number of lookups served from this row, used to pick the entries loaded at startup
+    private Long hitCount;
+
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+
+    // Constructors
+    public GeocodedLocation() {}
+
+    public GeocodedLocation(String name, Double latitude, Double longitude,
+                            String displayName, String country, String type) {
+        this.name = name;
+        this.latitude = latitude;
+        this.longitude = longitude;
+        this.displayName = displayName;
+        this.country = country;
+        this.type = type;
+        this.hitCount = 0L;
+    }
+
+    public String getName() { return name; }
+    public void setName(String name) { this.name = name; }
+
+    public Double getLatitude() { return latitude; }
+    public void setLatitude(Double latitude) { this.latitude = latitude; }
+
+    public Double getLongitude() { return longitude; }
+    public void setLongitude(Double longitude) { this.longitude = longitude; }
+
+    public String getDisplayName() { return displayName; }
+    public void setDisplayName(String displayName) { this.displayName = displayName; }
+
+    public String getCountry() { return country; }
+    public void setCountry(String country) { this.country = country; }
+
+    public String getType() { return type; }
+    public void setType(String type) { this.type = type; }
+
+    public Long getHitCount() { return hitCount; }
+    public void setHitCount(Long hitCount) { this.hitCount = hitCount; }
+
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+
+    public LocalDateTime getUpdatedAt() { return updatedAt; }
+    public void setUpdatedAt(LocalDateTime updatedAt) { this.updatedAt = updatedAt; }
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+        updatedAt = createdAt;
+    }
+
+    @PreUpdate
+    protected void onUpdate() {
+        updatedAt = LocalDateTime.now();
+    }
+}
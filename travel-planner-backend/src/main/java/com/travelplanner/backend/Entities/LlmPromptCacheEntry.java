@@ -0,0 +1,80 @@
+package com.travelplanner.backend.Entities;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.Table;
+
+/**
+ * A stored model response, so repeated prompts are still answered from cache after a restart.
+ */
+@Entity
+@Table(name = "llm_prompt_cache", indexes = @Index(name = "idx_llm_prompt_cache_expires_at", columnList = "expiresAt"))
+public class LlmPromptCacheEntry {
+    // SHA-256 of the normalized prompt and model options, the same key the in-memory cache uses
+    @Id
+    @Column(length = 64)
+    private String promptHash;
+
+    private String callSite;
+    private String model;
+
+    @Column(columnDefinition = "TEXT")
+    private String response;
+
+    // How long the original model call took, i.e. the time saved by each hit
+    private Long latencyMillis;
+
+    // Number of hits served from this row, used to pick the entries loaded at startup
+    private Long hitCount;
+
+    private LocalDateTime createdAt;
+    private LocalDateTime expiresAt;
+
+    // Constructors
+    public LlmPromptCacheEntry() {}
+
+    public LlmPromptCacheEntry(String promptHash, String callSite, String model, String response,
+                               Long latencyMillis, LocalDateTime expiresAt) {
+        this.promptHash = promptHash;
+        this.callSite = callSite;
+        this.model = model;
+        this.response = response;
+        this.latencyMillis = latencyMillis;
+        this.expiresAt = expiresAt;
+        this.hitCount = 0L;
+    }
+
+    public String getPromptHash() { return promptHash; }
+    public void setPromptHash(String promptHash) { this.promptHash = promptHash; }
+
+    public String getCallSite() { return callSite; }
+    public void setCallSite(String callSite) { this.callSite = callSite; }
+
+    public String getModel() { return model; }
+    public void setModel(String model) { this.model = model; }
+
+    public String getResponse() { return response; }
+    public void setResponse(String response) { this.response = response; }
+
+    public Long getLatencyMillis() { return latencyMillis; }
+    public void setLatencyMillis(Long latencyMillis) { this.latencyMillis = latencyMillis; }
+
+    public Long getHitCount() { return hitCount; }
+    public void setHitCount(Long hitCount) { this.hitCount = hitCount; }
+
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+
+    public LocalDateTime getExpiresAt() { return expiresAt; }
+    public void setExpiresAt(LocalDateTime expiresAt) { this.expiresAt = expiresAt; }
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+    }
+}
@@ -1,10 +1,15 @@
 package com.travelplanner.backend.Entities;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.travelplanner.backend.dto.DailyForecastDTO;
 
+import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.EnumType;
 import jakarta.persistence.Enumerated;
@@ -18,6 +23,7 @@ import jakarta.persistence.ManyToMany;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.PrePersist;
 import jakarta.persistence.Table;
+import jakarta.persistence.Transient;
 
 @Entity
 @Table(name = "trips")
@@ -52,6 +58,27 @@ public class Trip {
     private String sourceWeather;
     private String destinationWeather;
     
+    // The weather analyses behind the summaries above, as JSON, so a re-plan can reuse them as-is
+    @JsonIgnore
+    @Column(columnDefinition = "TEXT")
+    private String sourceWeatherData;
+    
+    @JsonIgnore
+    @Column(columnDefinition = "TEXT")
+    private String destinationWeatherData;
+    
+    // Daily forecast for the trip dates as JSON, fetched when the trip is planned or re-planned
+    @JsonIgnore
+    @Column(columnDefinition = "TEXT")
+    private String forecastData;
+    
+    // Planning inputs kept so a re-plan can tell which stages need recomputing
+    private Integer tripDuration;
+    private LocalDate startDate;
+    
+    @Column(columnDefinition = "TEXT")
+    private String interests;
+    
     private LocalDateTime createdAt;
     
     private String conversationId;
@@ -73,6 +100,14 @@ public class Trip {
     )
     private List<FamousPlace> recommendedPlaces;
 
+    // Stages that fell back during creation; only reported on the creating response
+    @Transient
+    private List<String> degradedStages = new ArrayList<>();
+
+    // Daily forecast for the trip dates, read from forecastData
+    @Transient
+    private List<DailyForecastDTO> forecast = new ArrayList<>();
+
     // Constructors
     public Trip() {}
     
@@ -134,11 +169,35 @@ public class Trip {
     public String getDestinationWeather() { return destinationWeather; }
     public void setDestinationWeather(String destinationWeather) { this.destinationWeather = destinationWeather; }
     
+    public String getSourceWeatherData() { return sourceWeatherData; }
+    public void setSourceWeatherData(String sourceWeatherData) { this.sourceWeatherData = sourceWeatherData; }
+    
+    public String getDestinationWeatherData() { return destinationWeatherData; }
+    public void setDestinationWeatherData(String destinationWeatherData) { this.destinationWeatherData = destinationWeatherData; }
+
+    public String getForecastData() { return forecastData; }
+    public void setForecastData(String forecastData) { this.forecastData = forecastData; }
+    
+    public Integer getTripDuration() { return tripDuration; }
+    public void setTripDuration(Integer tripDuration) { this.tripDuration = tripDuration; }
+    
+    public LocalDate getStartDate() { return startDate; }
+    public void setStartDate(LocalDate startDate) { this.startDate = startDate; }
+    
+    public String getInterests() { return interests; }
+    public void setInterests(String interests) { this.interests = interests; }
+    
     public LocalDateTime getCreatedAt() { return createdAt; }
     public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
     
     public List<FamousPlace> getRecommendedPlaces() { return recommendedPlaces; }
     public void setRecommendedPlaces(List<FamousPlace> recommendedPlaces) { this.recommendedPlaces = recommendedPlaces; }
+    
+    public List<String> getDegradedStages() { return degradedStages; }
+    public void setDegradedStages(List<String> degradedStages) { this.degradedStages = degradedStages; }
+    
+    public List<DailyForecastDTO> getForecast() { return forecast; }
+    public void setForecast(List<DailyForecastDTO> forecast) { this.forecast = forecast; }
 
     @PrePersist
     protected void onCreate() {
@@ -0,0 +1,40 @@
+package com.travelplanner.backend.ai;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Marks model calls that their caller abandoned on purpose, such as a losing hedge. The failure
+ * caused by interrupting such a call is not the endpoint's fault. Timeouts and any other interrupt
+ * still count against the endpoint.
+ */
+final class CallCancellation {
+
+    private static final ThreadLocal<AtomicBoolean> CURRENT = new ThreadLocal<>();
+
+    private CallCancellation() {
+    }
+
+    /**
+     * Runs {@code call} with {@code cancelled} as its cancellation flag; set the flag before
+     * interrupting the call
+     */
+    static <T> Callable<T> cancellable(Callable<T> call, AtomicBoolean cancelled) {
+        return () -> {
+            CURRENT.set(cancelled);
+            try {
+                return call.call();
+            } finally {
+                CURRENT.remove();
+            }
+        };
+    }
+
+    /**
+     * Whether the call running on this thread was cancelled by its caller
+     */
+    static boolean isCancelled() {
+        AtomicBoolean cancelled = CURRENT.get();
+        return cancelled != null && cancelled.get();
+    }
+}
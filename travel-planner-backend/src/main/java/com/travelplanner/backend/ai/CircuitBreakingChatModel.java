@@ -0,0 +1,58 @@
+package com.travelplanner.backend.ai;
+
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.ai.chat.model.ChatModel;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.ai.chat.prompt.ChatOptions;
+import org.springframework.ai.chat.prompt.Prompt;
+
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.reactor.circuitbreaker.operator.CircuitBreakerOperator;
+import reactor.core.publisher.Flux;
+
+/**
+ * Runs every model call through a circuit breaker. Failed and slow calls are recorded; while
+ * the circuit is open calls throw {@link CallNotPermittedException} at once, so the callers'
+ * existing fallbacks answer without waiting for the endpoint to time out.
+ */
+public class CircuitBreakingChatModel implements ChatModel {
+
+    private final ChatModel delegate;
+    private final CircuitBreaker circuitBreaker;
+
+    public CircuitBreakingChatModel(ChatModel delegate, CircuitBreaker circuitBreaker) {
+        this.delegate = delegate;
+        this.circuitBreaker = circuitBreaker;
+    }
+
+    @Override
+    public ChatResponse call(Prompt prompt) {
+        circuitBreaker.acquirePermission();
+        long start = System.nanoTime();
+        try {
+            ChatResponse response = delegate.call(prompt);
+            circuitBreaker.onSuccess(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            return response;
+        } catch (RuntimeException e) {
+            if (CallCancellation.isCancelled()) {
+                // The caller gave up on this call (e.g. a losing hedge); not the endpoint's fault
+                circuitBreaker.releasePermission();
+            } else {
+                circuitBreaker.onError(System.nanoTime() - start, TimeUnit.NANOSECONDS, e);
+            }
+            throw e;
+        }
+    }
+
+    @Override
+    public Flux<ChatResponse> stream(Prompt prompt) {
+        return delegate.stream(prompt).transformDeferred(CircuitBreakerOperator.of(circuitBreaker));
+    }
+
+    @Override
+    public ChatOptions getDefaultOptions() {
+        return delegate.getDefaultOptions();
+    }
+}
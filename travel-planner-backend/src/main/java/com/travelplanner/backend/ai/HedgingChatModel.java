@@ -0,0 +1,295 @@
+package com.travelplanner.backend.ai;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.ai.chat.model.ChatModel;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.ai.chat.prompt.ChatOptions;
+import org.springframework.ai.chat.prompt.Prompt;
+
+import com.travelplanner.backend.config.LlmProperties;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import reactor.core.publisher.Flux;
+
+/**
+ * Hedged model calls on top of {@link RoutingChatModel}: a call that has not answered within
+ * the hedge delay (a percentile of recent call latencies) is sent again to the best other
+ * backend, the first answer wins and the other attempt is cancelled. A call that fails before
+ * the delay is hedged right away.
+ * <p>
+ * Hedges are paid for from a budget that every call tops up by budget-ratio, so hedging adds
+ * at most that share of extra load and stops on its own when most calls are slow.
+ */
+public class HedgingChatModel implements ChatModel {
+
+    private static final Logger log = LoggerFactory.getLogger(HedgingChatModel.class);
+
+    private final RoutingChatModel router;
+    private final LlmProperties.Hedging settings;
+    private final ExecutorService executor;
+    private final LatencyWindow latencies;
+    private final HedgeBudget budget;
+
+    private final Counter hedgesSent;
+    private final Counter hedgesWon;
+    private final Counter skippedBudget;
+    private final Counter skippedSaturated;
+    private final Counter skippedNoBackend;
+
+    public HedgingChatModel(RoutingChatModel router, LlmProperties.Hedging settings,
+                            ExecutorService executor, MeterRegistry meterRegistry) {
+        this.router = router;
+        this.settings = settings;
+        this.executor = executor;
+        this.latencies = new LatencyWindow(settings.getWindowSize());
+        this.budget = new HedgeBudget(settings.getBudgetRatio(), settings.getMaxBurst());
+
+        this.hedgesSent = Counter.builder("llm.hedge.sent")
+                .description("Duplicate model calls sent to another endpoint")
+                .register(meterRegistry);
+        this.hedgesWon = Counter.builder("llm.hedge.won")
+                .description("Hedged calls answered by the duplicate")
+                .register(meterRegistry);
+        this.skippedBudget = Counter.builder("llm.hedge.skipped")
+                .description("Slow calls that were not hedged")
+                .tag("reason", "budget")
+                .register(meterRegistry);
+        this.skippedSaturated = Counter.builder("llm.hedge.skipped")
+                .description("Slow calls that were not hedged")
+                .tag("reason", "saturated")
+                .register(meterRegistry);
+        this.skippedNoBackend = Counter.builder("llm.hedge.skipped")
+                .description("Slow calls that were not hedged")
+                .tag("reason", "no-backend")
+                .register(meterRegistry);
+        TimeGauge.builder("llm.hedge.delay", this, TimeUnit.MILLISECONDS, model -> model.hedgeDelay().toMillis())
+                .description("Current latency after which a model call is hedged")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public ChatResponse call(Prompt prompt) {
+        budget.earn();
+        RoutingChatModel.Backend first = router.select(null);
+        CompletionService<ChatResponse> attempts = new ExecutorCompletionService<>(executor);
+        List<Attempt> inFlight = new ArrayList<>(2);
+        try {
+            inFlight.add(submit(attempts, first, prompt));
+        } catch (RejectedExecutionException e) {
+            skippedSaturated.increment();
+            return first.call(prompt);
+        }
+
+        try {
+            ExecutionException failure = null;
+            Future<ChatResponse> done = attempts.poll(hedgeDelay().toNanos(), TimeUnit.NANOSECONDS);
+            if (done != null) {
+                try {
+                    return done.get();
+                } catch (ExecutionException e) {
+                    failure = e;
+                }
+            }
+
+            Attempt hedge = sendHedge(attempts, prompt, first);
+            if (hedge == null) {
+                if (failure != null) {
+                    throw unwrap(failure);
+                }
+                return await(inFlight.get(0).future());
+            }
+            inFlight.add(hedge);
+
+            for (int outstanding = done == null ? 2 : 1; outstanding > 0; outstanding--) {
+                Future<ChatResponse> next = attempts.take();
+                try {
+                    ChatResponse response = next.get();
+                    if (next == hedge.future()) {
+                        hedgesWon.increment();
+                    }
+                    return response;
+                } catch (ExecutionException e) {
+                    failure = e;
+                }
+            }
+            throw unwrap(failure);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for the model", e);
+        } finally {
+            // Stops the losing attempt; a no-op for the one that already finished
+            inFlight.forEach(Attempt::cancel);
+        }
+    }
+
+    @Override
+    public Flux<ChatResponse> stream(Prompt prompt) {
+        return router.stream(prompt);
+    }
+
+    @Override
+    public ChatOptions getDefaultOptions() {
+        return router.getDefaultOptions();
+    }
+
+    /**
+     * The configured percentile of recent latencies, kept within [min-delay, max-delay];
+     * max-delay until enough calls have completed
+     */
+    Duration hedgeDelay() {
+        if (latencies.size() < settings.getMinSamples()) {
+            return settings.getMaxDelay();
+        }
+        Duration delay = Duration.ofNanos(latencies.percentile(settings.getPercentile()));
+        if (delay.compareTo(settings.getMinDelay()) < 0) {
+            return settings.getMinDelay();
+        }
+        return delay.compareTo(settings.getMaxDelay()) > 0 ? settings.getMaxDelay() : delay;
+    }
+
+    private Attempt sendHedge(CompletionService<ChatResponse> attempts, Prompt prompt,
+                                           RoutingChatModel.Backend first) {
+        RoutingChatModel.Backend other = router.select(first);
+        if (other == null) {
+            skippedNoBackend.increment();
+            return null;
+        }
+        if (!budget.trySpend()) {
+            skippedBudget.increment();
+            return null;
+        }
+        try {
+            Attempt hedge = submit(attempts, other, prompt);
+            hedgesSent.increment();
+            log.debug("Model call on {} slower than {}, hedging to {}", first.getName(), hedgeDelay(), other.getName());
+            return hedge;
+        } catch (RejectedExecutionException e) {
+            budget.refund();
+            skippedSaturated.increment();
+            return null;
+        }
+    }
+
+    private Attempt submit(CompletionService<ChatResponse> attempts, RoutingChatModel.Backend backend, Prompt prompt) {
+        AtomicBoolean cancelled = new AtomicBoolean();
+        Callable<ChatResponse> timed = () -> {
+            long start = System.nanoTime();
+            ChatResponse response = backend.call(prompt);
+            latencies.record(System.nanoTime() - start);
+            return response;
+        };
+        return new Attempt(attempts.submit(CallCancellation.cancellable(timed, cancelled)), cancelled);
+    }
+
+    private static ChatResponse await(Future<ChatResponse> attempt) throws InterruptedException {
+        try {
+            return attempt.get();
+        } catch (ExecutionException e) {
+            throw unwrap(e);
+        }
+    }
+
+    private static RuntimeException unwrap(ExecutionException e) {
+        Throwable cause = e.getCause();
+        if (cause instanceof RuntimeException runtime) {
+            return runtime;
+        }
+        return new IllegalStateException("Model call failed", cause);
+    }
+
+    /**
+     * One submitted call with the flag that tells the endpoint wrappers it was abandoned on purpose
+     */
+    private record Attempt(Future<ChatResponse> future, AtomicBoolean cancelled) {
+
+        void cancel() {
+            if (!future.isDone()) {
+                cancelled.set(true);
+                future.cancel(true);
+            }
+        }
+    }
+
+    /**
+     * Latencies of the most recent successful calls
+     */
+    static final class LatencyWindow {
+
+        private final long[] samples;
+        private int next;
+        private int size;
+
+        LatencyWindow(int capacity) {
+            this.samples = new long[Math.max(1, capacity)];
+        }
+
+        synchronized void record(long nanos) {
+            samples[next] = nanos;
+            next = (next + 1) % samples.length;
+            size = Math.min(size + 1, samples.length);
+        }
+
+        synchronized int size() {
+            return size;
+        }
+
+        synchronized long percentile(double percentile) {
+            if (size == 0) {
+                return 0;
+            }
+            long[] sorted = Arrays.copyOf(samples, size);
+            Arrays.sort(sorted);
+            int index = (int) Math.ceil(percentile * size) - 1;
+            return sorted[Math.max(0, Math.min(size - 1, index))];
+        }
+    }
+
+    /**
+     * Token bucket for hedges: each call adds ratio tokens, each hedge takes one
+     */
+    static final class HedgeBudget {
+
+        private final double ratio;
+        private final double maxTokens;
+        private double tokens;
+
+        HedgeBudget(double ratio, int maxBurst) {
+            this.ratio = ratio;
+            this.maxTokens = Math.max(1, maxBurst);
+            this.tokens = this.maxTokens;
+        }
+
+        synchronized void earn() {
+            tokens = Math.min(maxTokens, tokens + ratio);
+        }
+
+        synchronized boolean trySpend() {
+            if (tokens < 1) {
+                return false;
+            }
+            tokens -= 1;
+            return true;
+        }
+
+        synchronized void refund() {
+            tokens = Math.min(maxTokens, tokens + 1);
+        }
+    }
+}
@@ -0,0 +1,245 @@
+package com.travelplanner.backend.ai;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+import org.springframework.ai.chat.messages.AssistantMessage;
+import org.springframework.ai.chat.messages.Message;
+import org.springframework.ai.chat.model.ChatModel;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.ai.chat.model.Generation;
+import org.springframework.ai.chat.prompt.ChatOptions;
+import org.springframework.ai.chat.prompt.Prompt;
+
+import com.travelplanner.backend.config.LlmProperties;
+import com.travelplanner.backend.service.PromptCacheStore;
+import com.travelplanner.backend.service.PromptResponseCache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import reactor.core.publisher.Flux;
+
+/**
+ * Serves repeated prompts from cache. The prompt is normalized (message types, whitespace-
+ * collapsed text and the effective model options) and hashed; answers are kept in memory and
+ * in the llm_prompt_cache table until their call site's TTL runs out.
+ * <p>
+ * Caching is opt-in per call site: services wrap the injected model with
+ * {@link #forCallSite(ChatModel, String)} and app.llm.cache.call-sites.&lt;name&gt; decides. Prompts
+ * sent with temperature above 0 are only cached where cache-sampled is set. Calls made on the
+ * model directly are never cached. Only complete answers (finish reason stop) that pass the call
+ * site's validator are stored, so a truncated or unparsable answer is not replayed.
+ */
+public class PromptCachingChatModel implements ChatModel {
+
+    private final ChatModel delegate;
+    private final PromptResponseCache cache;
+    private final PromptCacheStore store;
+    private final LlmProperties.Cache settings;
+    private final MeterRegistry meterRegistry;
+
+    public PromptCachingChatModel(ChatModel delegate, PromptResponseCache cache, PromptCacheStore store,
+                                  LlmProperties.Cache settings, MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.cache = cache;
+        this.store = store;
+        this.settings = settings;
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * The view of {@code model} for one call site; {@code model} itself when it does not cache
+     */
+    public static ChatModel forCallSite(ChatModel model, String callSite) {
+        return forCallSite(model, callSite, text -> true);
+    }
+
+    /**
+     * As {@link #forCallSite(ChatModel, String)}, caching only answers accepted by {@code validator}
+     */
+    public static ChatModel forCallSite(ChatModel model, String callSite, Predicate<String> validator) {
+        return model instanceof PromptCachingChatModel caching ? caching.forCallSite(callSite, validator) : model;
+    }
+
+    public ChatModel forCallSite(String callSite, Predicate<String> validator) {
+        return new CallSiteChatModel(callSite, validator);
+    }
+
+    @Override
+    public ChatResponse call(Prompt prompt) {
+        return delegate.call(prompt);
+    }
+
+    @Override
+    public Flux<ChatResponse> stream(Prompt prompt) {
+        return delegate.stream(prompt);
+    }
+
+    @Override
+    public ChatOptions getDefaultOptions() {
+        return delegate.getDefaultOptions();
+    }
+
+    private ChatResponse call(Prompt prompt, String callSite, Predicate<String> validator) {
+        LlmProperties.CallSite policy = settings.getCallSites().get(callSite);
+        ChatOptions options = effectiveOptions(prompt);
+        if (!settings.isEnabled() || policy == null || !policy.isEnabled()
+                || (!policy.isCacheSampled() && isSampled(options))) {
+            count(callSite, "bypass");
+            return delegate.call(prompt);
+        }
+
+        String key = hash(normalize(prompt, options));
+        PromptResponseCache.Entry cached = cache.get(key);
+        if (cached == null) {
+            cached = store.find(key).orElse(null);
+            if (cached != null) {
+                cache.put(key, cached);
+            }
+        }
+        if (cached != null) {
+            count(callSite, "hit");
+            Timer.builder("llm.cache.saved")
+                    .description("Model call time saved by answering from the prompt cache")
+                    .tag("call_site", callSite)
+                    .register(meterRegistry)
+                    .record(cached.latencyMillis(), TimeUnit.MILLISECONDS);
+            store.recordHit(key);
+            return new ChatResponse(List.of(new Generation(new AssistantMessage(cached.response()))));
+        }
+
+        count(callSite, "miss");
+        long start = System.nanoTime();
+        ChatResponse response = delegate.call(prompt);
+        long latencyMillis = (System.nanoTime() - start) / 1_000_000;
+        String text = textOf(response);
+        if (text != null && !text.isBlank() && finishedNormally(response) && validator.test(text)) {
+            Duration ttl = policy.getTtl() != null ? policy.getTtl() : settings.getTtl();
+            PromptResponseCache.Entry entry = new PromptResponseCache.Entry(callSite, options.getModel(), text,
+                    latencyMillis, Instant.now().plus(ttl));
+            cache.put(key, entry);
+            store.save(key, entry);
+        }
+        return response;
+    }
+
+    private void count(String callSite, String result) {
+        Counter.builder("llm.cache.requests")
+                .description("Model calls by prompt cache outcome")
+                .tag("call_site", callSite)
+                .tag("result", result)
+                .register(meterRegistry)
+                .increment();
+    }
+
+    /**
+     * The prompt's own options over the model defaults
+     */
+    private ChatOptions effectiveOptions(Prompt prompt) {
+        ChatOptions defaults = delegate.getDefaultOptions();
+        ChatOptions requested = prompt.getOptions();
+        if (requested == null) {
+            return defaults;
+        }
+        return ChatOptions.builder()
+                .model(pick(requested, defaults, ChatOptions::getModel))
+                .temperature(pick(requested, defaults, ChatOptions::getTemperature))
+                .maxTokens(pick(requested, defaults, ChatOptions::getMaxTokens))
+                .topP(pick(requested, defaults, ChatOptions::getTopP))
+                .topK(pick(requested, defaults, ChatOptions::getTopK))
+                .frequencyPenalty(pick(requested, defaults, ChatOptions::getFrequencyPenalty))
+                .presencePenalty(pick(requested, defaults, ChatOptions::getPresencePenalty))
+                .stopSequences(pick(requested, defaults, ChatOptions::getStopSequences))
+                .build();
+    }
+
+    private static <T> T pick(ChatOptions requested, ChatOptions defaults, Function<ChatOptions, T> option) {
+        T value = option.apply(requested);
+        return value != null || defaults == null ? value : option.apply(defaults);
+    }
+
+    private static boolean isSampled(ChatOptions options) {
+        return options == null || options.getTemperature() == null || options.getTemperature() > 0;
+    }
+
+    static String normalize(Prompt prompt, ChatOptions options) {
+        StringBuilder normalized = new StringBuilder();
+        if (options != null) {
+            normalized.append("model=").append(options.getModel())
+                    .append("|temperature=").append(options.getTemperature())
+                    .append("|maxTokens=").append(options.getMaxTokens())
+                    .append("|topP=").append(options.getTopP())
+                    .append("|topK=").append(options.getTopK())
+                    .append("|frequencyPenalty=").append(options.getFrequencyPenalty())
+                    .append("|presencePenalty=").append(options.getPresencePenalty())
+                    .append("|stop=").append(options.getStopSequences());
+        }
+        for (Message message : prompt.getInstructions()) {
+            String text = message.getText() == null ? "" : message.getText().strip().replaceAll("\\s+", " ");
+            normalized.append('\n').append(message.getMessageType().getValue()).append(':').append(text);
+        }
+        return normalized.toString();
+    }
+
+    private static String hash(String normalized) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(normalized.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    /**
+     * Whether the model stopped on its own; backends that report no finish reason are trusted
+     */
+    private static boolean finishedNormally(ChatResponse response) {
+        if (response.getResult().getMetadata() == null) {
+            return true;
+        }
+        String finishReason = response.getResult().getMetadata().getFinishReason();
+        return finishReason == null || "stop".equalsIgnoreCase(finishReason);
+    }
+
+    private static String textOf(ChatResponse response) {
+        if (response == null || response.getResult() == null || response.getResult().getOutput() == null) {
+            return null;
+        }
+        return response.getResult().getOutput().getText();
+    }
+
+    private final class CallSiteChatModel implements ChatModel {
+
+        private final String callSite;
+        private final Predicate<String> validator;
+
+        private CallSiteChatModel(String callSite, Predicate<String> validator) {
+            this.callSite = callSite;
+            this.validator = validator;
+        }
+
+        @Override
+        public ChatResponse call(Prompt prompt) {
+            return PromptCachingChatModel.this.call(prompt, callSite, validator);
+        }
+
+        @Override
+        public Flux<ChatResponse> stream(Prompt prompt) {
+            return delegate.stream(prompt);
+        }
+
+        @Override
+        public ChatOptions getDefaultOptions() {
+            return delegate.getDefaultOptions();
+        }
+    }
+}
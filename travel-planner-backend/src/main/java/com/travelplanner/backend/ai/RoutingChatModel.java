@@ -0,0 +1,296 @@
+package com.travelplanner.backend.ai;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.ai.chat.model.ChatModel;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.ai.chat.prompt.ChatOptions;
+import org.springframework.ai.chat.prompt.Prompt;
+
+import com.travelplanner.backend.config.LlmProperties;
+
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Spreads model calls over several OpenAI-compatible backends, sending each call to the
+ * backend with the lowest (in-flight calls + 1) x average latency.
+ * <p>
+ * Backends leave the rotation when their health check fails, when their circuit breaker is
+ * open, or after eject-after-failures consecutive failed calls (for ejection-time, growing
+ * with repeated ejections). A backend coming back starts at a tenth of its share and ramps
+ * up over slow-start. When every backend is out, calls go to the least loaded one anyway and
+ * its circuit breaker decides.
+ */
+public class RoutingChatModel implements ChatModel, AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(RoutingChatModel.class);
+
+    private static final double MIN_SLOW_START_WEIGHT = 0.1;
+
+    private final List<Backend> backends;
+    private final ScheduledExecutorService healthChecker;
+    private final Duration healthCheckTimeout;
+
+    public RoutingChatModel(List<Backend> backends, LlmProperties.Routing settings, MeterRegistry meterRegistry) {
+        if (backends.isEmpty()) {
+            throw new IllegalArgumentException("At least one model backend is required");
+        }
+        this.backends = List.copyOf(backends);
+        this.healthCheckTimeout = settings.getHealthCheckTimeout();
+
+        for (Backend backend : this.backends) {
+            Gauge.builder("llm.backend.inflight", backend, b -> b.inFlight.get())
+                    .description("Model calls currently running on the backend")
+                    .tag("backend", backend.name)
+                    .register(meterRegistry);
+            TimeGauge.builder("llm.backend.latency", backend, TimeUnit.MILLISECONDS, b -> b.latencyMillis)
+                    .description("Moving average latency of successful calls to the backend")
+                    .tag("backend", backend.name)
+                    .register(meterRegistry);
+            Gauge.builder("llm.backend.available", backend, b -> b.isAvailable(System.nanoTime()) ? 1 : 0)
+                    .description("Whether the backend is taking calls")
+                    .tag("backend", backend.name)
+                    .register(meterRegistry);
+            backend.ejections = Counter.builder("llm.backend.ejections")
+                    .description("Times the backend was taken out of rotation after consecutive failures")
+                    .tag("backend", backend.name)
+                    .register(meterRegistry);
+        }
+
+        this.healthChecker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "llm-health-check");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long interval = settings.getHealthCheckInterval().toMillis();
+        healthChecker.scheduleWithFixedDelay(this::checkHealth, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public ChatResponse call(Prompt prompt) {
+        return select(null).call(prompt);
+    }
+
+    @Override
+    public Flux<ChatResponse> stream(Prompt prompt) {
+        return select(null).stream(prompt);
+    }
+
+    @Override
+    public ChatOptions getDefaultOptions() {
+        return backends.get(0).model.getDefaultOptions();
+    }
+
+    public int size() {
+        return backends.size();
+    }
+
+    /**
+     * The backend the next call should go to, never {@code exclude}. Returns null only when
+     * {@code exclude} is given and no other backend is available.
+     */
+    public Backend select(Backend exclude) {
+        long now = System.nanoTime();
+        double defaultLatency = averageLatency();
+        int offset = ThreadLocalRandom.current().nextInt(backends.size());
+
+        Backend best = null;
+        double bestScore = Double.MAX_VALUE;
+        for (int i = 0; i < backends.size(); i++) {
+            Backend backend = backends.get((offset + i) % backends.size());
+            if (backend == exclude || !backend.isAvailable(now)) {
+                continue;
+            }
+            double score = backend.score(now, defaultLatency);
+            if (score < bestScore) {
+                best = backend;
+                bestScore = score;
+            }
+        }
+        if (best != null || exclude != null) {
+            return best;
+        }
+
+        for (int i = 0; i < backends.size(); i++) {
+            Backend backend = backends.get((offset + i) % backends.size());
+            if (best == null || backend.inFlight.get() < best.inFlight.get()) {
+                best = backend;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Latency assumed for backends that have not answered yet
+     */
+    private double averageLatency() {
+        double total = 0;
+        int known = 0;
+        for (Backend backend : backends) {
+            if (backend.latencyMillis > 0) {
+                total += backend.latencyMillis;
+                known++;
+            }
+        }
+        return known == 0 ? 1 : total / known;
+    }
+
+    private void checkHealth() {
+        for (Backend backend : backends) {
+            backend.healthCheck.get()
+                    .timeout(healthCheckTimeout)
+                    .onErrorReturn(false)
+                    .defaultIfEmpty(false)
+                    .subscribe(backend::onHealthCheck);
+        }
+    }
+
+    @Override
+    public void close() {
+        healthChecker.shutdownNow();
+    }
+
+    /**
+     * One model endpoint with its own circuit breaker, load and latency statistics
+     */
+    public static final class Backend {
+
+        private final String name;
+        private final ChatModel model;
+        private final CircuitBreaker circuitBreaker;
+        private final Supplier<Mono<Boolean>> healthCheck;
+
+        private final int ejectAfterFailures;
+        private final long ejectionNanos;
+        private final long maxEjectionNanos;
+        private final long slowStartNanos;
+        private final double latencyDecay;
+
+        private final AtomicInteger inFlight = new AtomicInteger();
+        private final AtomicInteger consecutiveFailures = new AtomicInteger();
+        private volatile double latencyMillis;
+        private volatile boolean healthy = true;
+        private volatile long ejectedUntil;
+        private volatile long rejoinedAt;
+        private int ejectionsInRow;
+        private Counter ejections;
+
+        public Backend(String name, ChatModel model, CircuitBreaker circuitBreaker,
+                       Supplier<Mono<Boolean>> healthCheck, LlmProperties.Routing settings) {
+            this.name = name;
+            this.model = model;
+            this.circuitBreaker = circuitBreaker;
+            this.healthCheck = healthCheck;
+            this.ejectAfterFailures = Math.max(1, settings.getEjectAfterFailures());
+            this.ejectionNanos = settings.getEjectionTime().toNanos();
+            this.maxEjectionNanos = settings.getMaxEjectionTime().toNanos();
+            this.slowStartNanos = settings.getSlowStart().toNanos();
+            this.latencyDecay = settings.getLatencyDecay();
+            // Start with the full share of calls
+            this.rejoinedAt = System.nanoTime() - slowStartNanos;
+            this.ejectedUntil = rejoinedAt;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public ChatResponse call(Prompt prompt) {
+            inFlight.incrementAndGet();
+            long start = System.nanoTime();
+            try {
+                ChatResponse response = model.call(prompt);
+                onSuccess(System.nanoTime() - start);
+                return response;
+            } catch (RuntimeException e) {
+                onFailure(e);
+                throw e;
+            } finally {
+                inFlight.decrementAndGet();
+            }
+        }
+
+        public Flux<ChatResponse> stream(Prompt prompt) {
+            return Flux.defer(() -> {
+                inFlight.incrementAndGet();
+                return model.stream(prompt)
+                        .doOnError(this::onFailure)
+                        .doFinally(signal -> inFlight.decrementAndGet());
+            });
+        }
+
+        boolean isAvailable(long now) {
+            CircuitBreaker.State state = circuitBreaker.getState();
+            return healthy && now - ejectedUntil >= 0
+                    && state != CircuitBreaker.State.OPEN && state != CircuitBreaker.State.FORCED_OPEN;
+        }
+
+        double score(long now, double defaultLatency) {
+            double latency = latencyMillis > 0 ? latencyMillis : defaultLatency;
+            double weight = 1;
+            if (slowStartNanos > 0) {
+                weight = Math.max(MIN_SLOW_START_WEIGHT,
+                        Math.min(1, (double) (now - Math.max(rejoinedAt, ejectedUntil)) / slowStartNanos));
+            }
+            return (inFlight.get() + 1) * latency / weight;
+        }
+
+        private synchronized void onSuccess(long nanos) {
+            consecutiveFailures.set(0);
+            ejectionsInRow = 0;
+            double millis = nanos / 1_000_000.0;
+            latencyMillis = latencyMillis > 0 ? latencyMillis + latencyDecay * (millis - latencyMillis) : millis;
+        }
+
+        private void onFailure(Throwable error) {
+            // A cancelled hedge or an open breaker says nothing about the backend itself
+            if (error instanceof CallNotPermittedException || CallCancellation.isCancelled()) {
+                return;
+            }
+            if (consecutiveFailures.incrementAndGet() >= ejectAfterFailures) {
+                eject();
+            }
+        }
+
+        private synchronized void eject() {
+            long now = System.nanoTime();
+            if (now - ejectedUntil < 0) {
+                return;
+            }
+            ejectionsInRow++;
+            long duration = Math.min(maxEjectionNanos, ejectionNanos * ejectionsInRow);
+            ejectedUntil = now + duration;
+            consecutiveFailures.set(0);
+            ejections.increment();
+            log.warn("Model backend {} ejected for {} ms after {} consecutive failures",
+                    name, duration / 1_000_000, ejectAfterFailures);
+        }
+
+        private void onHealthCheck(boolean passed) {
+            if (passed && !healthy) {
+                rejoinedAt = System.nanoTime();
+                healthy = true;
+                log.info("Model backend {} passed its health check, ramping traffic back up", name);
+            } else if (!passed && healthy) {
+                healthy = false;
+                log.warn("Model backend {} failed its health check, taking it out of rotation", name);
+            }
+        }
+    }
+}
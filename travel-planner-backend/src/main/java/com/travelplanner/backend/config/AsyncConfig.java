@@ -0,0 +1,146 @@
+package com.travelplanner.backend.config;
+
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+@Configuration
+public class AsyncConfig {
+
+    private static final Logger log = LoggerFactory.getLogger(AsyncConfig.class);
+
+    @Value("${app.trip-jobs.core-pool-size:4}")
+    private int tripJobCorePoolSize;
+
+    @Value("${app.trip-jobs.max-pool-size:8}")
+    private int tripJobMaxPoolSize;
+
+    @Value("${app.trip-jobs.queue-capacity:50}")
+    private int tripJobQueueCapacity;
+
+    @Value("${app.trip-chat.pool-size:4}")
+    private int tripChatPoolSize;
+
+    @Value("${app.trip-chat.queue-capacity:100}")
+    private int tripChatQueueCapacity;
+
+    @Value("${app.geocoding-store.write-queue-capacity:500}")
+    private int geocodeStoreQueueCapacity;
+
+    @Value("${app.llm.call-pool-size:16}")
+    private int llmCallPoolSize;
+
+    @Value("${app.llm.cache.write-queue-capacity:500}")
+    private int promptCacheQueueCapacity;
+
+    /**
+     * Runs asynchronous trip creation jobs. Bounded so a burst of submissions is
+     * rejected instead of queueing without limit.
+     */
+    @Bean(name = "tripJobExecutor")
+    public ThreadPoolTaskExecutor tripJobExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(tripJobCorePoolSize);
+        executor.setMaxPoolSize(tripJobMaxPoolSize);
+        executor.setQueueCapacity(tripJobQueueCapacity);
+        executor.setThreadNamePrefix("trip-job-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * Runs the background chat history generation for new trips. These are blocking LLM
+     * calls, so they get their own fixed-size pool instead of the common ForkJoinPool.
+     * When the queue is full the task is counted and rejected; the trip is still saved and
+     * reports its chat-seeding stage as degraded.
+     */
+    @Bean(name = "tripChatExecutor")
+    public ThreadPoolTaskExecutor tripChatExecutor(MeterRegistry meterRegistry) {
+        Counter rejections = Counter.builder("trip.chat.executor.rejected")
+                .description("Trip chat generation tasks dropped because the queue was full")
+                .register(meterRegistry);
+
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(tripChatPoolSize);
+        executor.setMaxPoolSize(tripChatPoolSize);
+        executor.setQueueCapacity(tripChatQueueCapacity);
+        executor.setThreadNamePrefix("trip-chat-");
+        executor.setRejectedExecutionHandler((task, pool) -> {
+            rejections.increment();
+            log.warn("Trip chat executor saturated ({} queued), dropping chat generation task",
+                    pool.getQueue().size());
+            throw new RejectedExecutionException("Trip chat executor saturated");
+        });
+        executor.initialize();
+
+        // Exposes active, queued, pool size and completed task metrics under executor.*
+        ExecutorServiceMetrics.monitor(meterRegistry, executor.getThreadPoolExecutor(), "tripChatExecutor");
+        return executor;
+    }
+
+    /**
+     * Writes geocoding results back to the database. A single thread is enough; when the
+     * queue is full the write is dropped, since the location will simply be resolved again.
+     */
+    @Bean(name = "geocodeStoreExecutor")
+    public ThreadPoolTaskExecutor geocodeStoreExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(1);
+        executor.setMaxPoolSize(1);
+        executor.setQueueCapacity(geocodeStoreQueueCapacity);
+        executor.setThreadNamePrefix("geocode-store-");
+        executor.setRejectedExecutionHandler((task, pool) ->
+                log.warn("Geocode store executor saturated, dropping write-back"));
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * Runs hedged model calls so the caller can wait on whichever attempt answers first.
+     * There is no queue: when every thread is busy the call runs on the caller's thread
+     * and a hedge is simply not sent.
+     */
+    @Bean(name = "llmCallExecutor")
+    public ThreadPoolTaskExecutor llmCallExecutor(MeterRegistry meterRegistry) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(llmCallPoolSize);
+        executor.setMaxPoolSize(llmCallPoolSize);
+        executor.setQueueCapacity(0);
+        executor.setThreadNamePrefix("llm-call-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        executor.initialize();
+
+        ExecutorServiceMetrics.monitor(meterRegistry, executor.getThreadPoolExecutor(), "llmCallExecutor");
+        return executor;
+    }
+
+    /**
+     * Writes cached model responses to the database, off the request path. Dropped writes
+     * only mean the response is not remembered across a restart.
+     */
+    @Bean(name = "promptCacheStoreExecutor")
+    public ThreadPoolTaskExecutor promptCacheStoreExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(1);
+        executor.setMaxPoolSize(1);
+        executor.setQueueCapacity(promptCacheQueueCapacity);
+        executor.setThreadNamePrefix("prompt-cache-store-");
+        executor.setRejectedExecutionHandler((task, pool) ->
+                log.warn("Prompt cache store executor saturated, dropping write-back"));
+        executor.initialize();
+        return executor;
+    }
+}
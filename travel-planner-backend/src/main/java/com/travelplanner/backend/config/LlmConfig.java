@@ -0,0 +1,121 @@
+package com.travelplanner.backend.config;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import org.springframework.ai.chat.model.ChatModel;
+import org.springframework.ai.openai.OpenAiChatModel;
+import org.springframework.ai.openai.OpenAiChatOptions;
+import org.springframework.ai.openai.api.OpenAiApi;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import com.travelplanner.backend.ai.CircuitBreakingChatModel;
+import com.travelplanner.backend.ai.HedgingChatModel;
+import com.travelplanner.backend.ai.PromptCachingChatModel;
+import com.travelplanner.backend.ai.RoutingChatModel;
+import com.travelplanner.backend.service.PromptCacheStore;
+import com.travelplanner.backend.service.PromptResponseCache;
+
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.micrometer.core.instrument.MeterRegistry;
+import reactor.core.publisher.Mono;
+
+/**
+ * The ChatModel the services see. Every backend (spring.ai.openai.* as "primary", plus
+ * app.llm.endpoints.&lt;name&gt;) gets its own circuit breaker ("llm" and "llm-&lt;name&gt;"), calls are
+ * routed to the least loaded one, and with app.llm.hedging.enabled slow calls are hedged to
+ * a second backend. Outermost is the prompt cache, used by call sites that opt in.
+ */
+@Configuration
+public class LlmConfig {
+
+    private final LlmProperties llmProperties;
+
+    @Value("${spring.ai.openai.base-url}")
+    private String primaryBaseUrl;
+
+    @Value("${spring.ai.openai.api-key}")
+    private String primaryApiKey;
+
+    public LlmConfig(LlmProperties llmProperties) {
+        this.llmProperties = llmProperties;
+    }
+
+    @Bean
+    public RoutingChatModel routingChatModel(OpenAiChatModel openAiChatModel, CircuitBreakerRegistry circuitBreakerRegistry,
+                                             WebClient webClient, MeterRegistry meterRegistry) {
+        LlmProperties.Routing routing = llmProperties.getRouting();
+        List<RoutingChatModel.Backend> backends = new ArrayList<>();
+        backends.add(backend("primary", openAiChatModel, circuitBreakerRegistry.circuitBreaker("llm"),
+                healthCheck(webClient, primaryBaseUrl, primaryApiKey), routing));
+
+        for (Map.Entry<String, LlmProperties.Endpoint> entry : llmProperties.getEndpoints().entrySet()) {
+            LlmProperties.Endpoint endpoint = entry.getValue();
+            backends.add(backend(entry.getKey(), endpointModel(openAiChatModel, endpoint),
+                    circuitBreakerRegistry.circuitBreaker("llm-" + entry.getKey()),
+                    healthCheck(webClient, endpoint.getBaseUrl(), endpoint.getApiKey()), routing));
+        }
+        return new RoutingChatModel(backends, routing, meterRegistry);
+    }
+
+    @Bean
+    @Primary
+    public ChatModel chatModel(RoutingChatModel routingChatModel,
+                               @Qualifier("llmCallExecutor") ThreadPoolTaskExecutor llmCallExecutor,
+                               PromptResponseCache promptResponseCache, PromptCacheStore promptCacheStore,
+                               MeterRegistry meterRegistry) {
+        ChatModel model = routingChatModel;
+        if (llmProperties.getHedging().isEnabled() && routingChatModel.size() > 1) {
+            model = new HedgingChatModel(routingChatModel, llmProperties.getHedging(),
+                    llmCallExecutor.getThreadPoolExecutor(), meterRegistry);
+        }
+        return new PromptCachingChatModel(model, promptResponseCache, promptCacheStore,
+                llmProperties.getCache(), meterRegistry);
+    }
+
+    private RoutingChatModel.Backend backend(String name, ChatModel model, CircuitBreaker circuitBreaker,
+                                             Supplier<Mono<Boolean>> healthCheck, LlmProperties.Routing routing) {
+        return new RoutingChatModel.Backend(name, new CircuitBreakingChatModel(model, circuitBreaker),
+                circuitBreaker, healthCheck, routing);
+    }
+
+    /**
+     * Lists the backend's models; any 2xx answer counts as healthy
+     */
+    private Supplier<Mono<Boolean>> healthCheck(WebClient webClient, String baseUrl, String apiKey) {
+        String modelsUrl = baseUrl.replaceAll("/+$", "") + "/v1/models";
+        return () -> webClient.get()
+                .uri(modelsUrl)
+                .headers(headers -> headers.setBearerAuth(apiKey))
+                .retrieve()
+                .toBodilessEntity()
+                .map(response -> response.getStatusCode().is2xxSuccessful());
+    }
+
+    /**
+     * Same options, retry and observation settings as the primary, pointed at another endpoint
+     */
+    private OpenAiChatModel endpointModel(OpenAiChatModel primary, LlmProperties.Endpoint endpoint) {
+        OpenAiChatOptions options = ((OpenAiChatOptions) primary.getDefaultOptions()).copy();
+        if (endpoint.getModel() != null && !endpoint.getModel().isBlank()) {
+            options.setModel(endpoint.getModel());
+        }
+        OpenAiApi api = OpenAiApi.builder()
+                .baseUrl(endpoint.getBaseUrl())
+                .apiKey(endpoint.getApiKey())
+                .build();
+        return primary.mutate()
+                .openAiApi(api)
+                .defaultOptions(options)
+                .build();
+    }
+}
@@ -0,0 +1,200 @@
+package com.travelplanner.backend.config;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Extra model endpoints, routing, hedging and prompt cache settings (app.llm.*). The endpoint configured
+ * under spring.ai.openai.* is always one backend; app.llm.endpoints.&lt;name&gt;.* adds more that
+ * serve the same model.
+ */
+@Component
+@ConfigurationProperties(prefix = "app.llm")
+public class LlmProperties {
+
+    private Map<String, Endpoint> endpoints = new LinkedHashMap<>();
+
+    private Routing routing = new Routing();
+
+    private Hedging hedging = new Hedging();
+
+    private Cache cache = new Cache();
+
+    public Map<String, Endpoint> getEndpoints() { return endpoints; }
+    public void setEndpoints(Map<String, Endpoint> endpoints) { this.endpoints = endpoints; }
+
+    public Routing getRouting() { return routing; }
+    public void setRouting(Routing routing) { this.routing = routing; }
+
+    public Hedging getHedging() { return hedging; }
+    public void setHedging(Hedging hedging) { this.hedging = hedging; }
+
+    public Cache getCache() { return cache; }
+    public void setCache(Cache cache) { this.cache = cache; }
+
+    public static class Endpoint {
+        /** OpenAI-compatible base URL of the backend */
+        private String baseUrl;
+
+        private String apiKey = "ollama";
+
+        /** Model name on this backend; spring.ai.openai.chat.options.model when not set */
+        private String model;
+
+        public String getBaseUrl() { return baseUrl; }
+        public void setBaseUrl(String baseUrl) { this.baseUrl = baseUrl; }
+
+        public String getApiKey() { return apiKey; }
+        public void setApiKey(String apiKey) { this.apiKey = apiKey; }
+
+        public String getModel() { return model; }
+        public void setModel(String model) { this.model = model; }
+    }
+
+    public static class Routing {
+        /** How often every backend's model list is requested */
+        private Duration healthCheckInterval = Duration.ofSeconds(10);
+
+        private Duration healthCheckTimeout = Duration.ofSeconds(3);
+
+        /** Consecutive failed calls that take a backend out of rotation */
+        private int ejectAfterFailures = 3;
+
+        /** How long an ejected backend stays out; multiplied by the number of ejections in a row */
+        private Duration ejectionTime = Duration.ofSeconds(30);
+
+        private Duration maxEjectionTime = Duration.ofMinutes(5);
+
+        /** Time over which a returning backend ramps up to its full share of calls */
+        private Duration slowStart = Duration.ofSeconds(60);
+
+        /** Weight of the newest call in the moving average latency */
+        private double latencyDecay = 0.3;
+
+        public Duration getHealthCheckInterval() { return healthCheckInterval; }
+        public void setHealthCheckInterval(Duration healthCheckInterval) { this.healthCheckInterval = healthCheckInterval; }
+
+        public Duration getHealthCheckTimeout() { return healthCheckTimeout; }
+        public void setHealthCheckTimeout(Duration healthCheckTimeout) { this.healthCheckTimeout = healthCheckTimeout; }
+
+        public int getEjectAfterFailures() { return ejectAfterFailures; }
+        public void setEjectAfterFailures(int ejectAfterFailures) { this.ejectAfterFailures = ejectAfterFailures; }
+
+        public Duration getEjectionTime() { return ejectionTime; }
+        public void setEjectionTime(Duration ejectionTime) { this.ejectionTime = ejectionTime; }
+
+        public Duration getMaxEjectionTime() { return maxEjectionTime; }
+        public void setMaxEjectionTime(Duration maxEjectionTime) { this.maxEjectionTime = maxEjectionTime; }
+
+        public Duration getSlowStart() { return slowStart; }
+        public void setSlowStart(Duration slowStart) { this.slowStart = slowStart; }
+
+        public double getLatencyDecay() { return latencyDecay; }
+        public void setLatencyDecay(double latencyDecay) { this.latencyDecay = latencyDecay; }
+    }
+
+    public static class Hedging {
+        /** Send a duplicate call to another backend when the first one is slow (needs two backends) */
+        private boolean enabled = false;
+
+        /** Latency percentile of recent calls after which a call is hedged */
+        private double percentile = 0.95;
+
+        /** Lower bound for the hedge delay, so fast periods do not hedge everything */
+        private Duration minDelay = Duration.ofSeconds(2);
+
+        /** Upper bound for the hedge delay, also used until enough calls have been seen */
+        private Duration maxDelay = Duration.ofSeconds(20);
+
+        /** Number of recent successful calls the percentile is computed over */
+        private int windowSize = 200;
+
+        /** Calls needed before the percentile replaces max-delay */
+        private int minSamples = 20;
+
+        /** Hedges earned per call, i.e. the most extra load hedging may add (0.1 = 10%) */
+        private double budgetRatio = 0.1;
+
+        /** Unused hedges that may be saved up for a burst of slow calls */
+        private int maxBurst = 3;
+
+        public boolean isEnabled() { return enabled; }
+        public void setEnabled(boolean enabled) { this.enabled = enabled; }
+
+        public double getPercentile() { return percentile; }
+        public void setPercentile(double percentile) { this.percentile = percentile; }
+
+        public Duration getMinDelay() { return minDelay; }
+        public void setMinDelay(Duration minDelay) { this.minDelay = minDelay; }
+
+        public Duration getMaxDelay() { return maxDelay; }
+        public void setMaxDelay(Duration maxDelay) { this.maxDelay = maxDelay; }
+
+        public int getWindowSize() { return windowSize; }
+        public void setWindowSize(int windowSize) { this.windowSize = windowSize; }
+
+        public int getMinSamples() { return minSamples; }
+        public void setMinSamples(int minSamples) { this.minSamples = minSamples; }
+
+        public double getBudgetRatio() { return budgetRatio; }
+        public void setBudgetRatio(double budgetRatio) { this.budgetRatio = budgetRatio; }
+
+        public int getMaxBurst() { return maxBurst; }
+        public void setMaxBurst(int maxBurst) { this.maxBurst = maxBurst; }
+    }
+
+    public static class Cache {
+        /** Master switch; call sites still have to be enabled one by one */
+        private boolean enabled = true;
+
+        /** Entries kept in memory; the table keeps everything until it expires */
+        private long maxSize = 10_000;
+
+        /** Lifetime of a cached response when the call site does not set one */
+        private Duration ttl = Duration.ofHours(6);
+
+        /** Most used stored responses loaded into memory at startup */
+        private int warmLoadSize = 2000;
+
+        /** Per call-site settings (app.llm.cache.call-sites.&lt;name&gt;.*); unlisted call sites are not cached */
+        private Map<String, CallSite> callSites = new LinkedHashMap<>();
+
+        public boolean isEnabled() { return enabled; }
+        public void setEnabled(boolean enabled) { this.enabled = enabled; }
+
+        public long getMaxSize() { return maxSize; }
+        public void setMaxSize(long maxSize) { this.maxSize = maxSize; }
+
+        public Duration getTtl() { return ttl; }
+        public void setTtl(Duration ttl) { this.ttl = ttl; }
+
+        public int getWarmLoadSize() { return warmLoadSize; }
+        public void setWarmLoadSize(int warmLoadSize) { this.warmLoadSize = warmLoadSize; }
+
+        public Map<String, CallSite> getCallSites() { return callSites; }
+        public void setCallSites(Map<String, CallSite> callSites) { this.callSites = callSites; }
+    }
+
+    public static class CallSite {
+        private boolean enabled = false;
+
+        /** Lifetime of responses from this call site; app.llm.cache.ttl when not set */
+        private Duration ttl;
+
+        /** Also cache prompts sent with temperature above 0, whose answers would vary */
+        private boolean cacheSampled = false;
+
+        public boolean isEnabled() { return enabled; }
+        public void setEnabled(boolean enabled) { this.enabled = enabled; }
+
+        public Duration getTtl() { return ttl; }
+        public void setTtl(Duration ttl) { this.ttl = ttl; }
+
+        public boolean isCacheSampled() { return cacheSampled; }
+        public void setCacheSampled(boolean cacheSampled) { this.cacheSampled = cacheSampled; }
+    }
+}
@@ -0,0 +1,108 @@
+package com.travelplanner.backend.config;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Rule table for the local route estimation engine (app.route.*). Rules are checked in
+ * order and the first one matching the distance, budget per passenger and comfort level wins.
+ */
+@Component
+@ConfigurationProperties(prefix = "app.route")
+public class RouteRuleProperties {
+
+    /** Multiplier turning great-circle distance into an approximate road distance */
+    private double roadFactor = 1.25;
+
+    /** Rules at or above this confidence skip the LLM */
+    private double minConfidence = 0.8;
+
+    /** Still ask the LLM for the reasoning text when the rules are confident */
+    private boolean llmReasoning = false;
+
+    private List<Rule> rules = defaultRules();
+
+    public double getRoadFactor() { return roadFactor; }
+    public void setRoadFactor(double roadFactor) { this.roadFactor = roadFactor; }
+
+    public double getMinConfidence() { return minConfidence; }
+    public void setMinConfidence(double minConfidence) { this.minConfidence = minConfidence; }
+
+    public boolean isLlmReasoning() { return llmReasoning; }
+    public void setLlmReasoning(boolean llmReasoning) { this.llmReasoning = llmReasoning; }
+
+    public List<Rule> getRules() { return rules; }
+    public void setRules(List<Rule> rules) { this.rules = rules; }
+
+    private static List<Rule> defaultRules() {
+        List<Rule> rules = new ArrayList<>();
+        rules.add(new Rule("car", 0, 300, 0, List.of("COMFORT", "LUXURY"), 0.9,
+                "Short trip where driving is fastest door to door"));
+        rules.add(new Rule("bus", 0, 300, 0, List.of("ECONOMY"), 0.85,
+                "Short trip where the bus is the most economical option"));
+        rules.add(new Rule("flight", 300, 800, 6000, List.of("LUXURY"), 0.8,
+                "Medium distance and the budget allows for comfortable air travel"));
+        rules.add(new Rule("train", 300, 800, 0, List.of(), 0.85,
+                "Medium distance where the train balances comfort and cost"));
+        rules.add(new Rule("flight", 800, Double.MAX_VALUE, 4000, List.of(), 0.9,
+                "Long distance and the budget covers a flight"));
+        rules.add(new Rule("train", 800, Double.MAX_VALUE, 0, List.of(), 0.8,
+                "Long distance on a budget, an overnight train is the practical choice"));
+        return rules;
+    }
+
+    public static class Rule {
+        private String mode;
+        private double minDistanceKm;
+        private double maxDistanceKm = Double.MAX_VALUE;
+        private double minBudgetPerPassenger;
+        /** Empty means any comfort level */
+        private List<String> comfortLevels = new ArrayList<>();
+        private double confidence;
+        private String reasoning;
+
+        public Rule() {}
+
+        public Rule(String mode, double minDistanceKm, double maxDistanceKm, double minBudgetPerPassenger,
+                List<String> comfortLevels, double confidence, String reasoning) {
+            this.mode = mode;
+            this.minDistanceKm = minDistanceKm;
+            this.maxDistanceKm = maxDistanceKm;
+            this.minBudgetPerPassenger = minBudgetPerPassenger;
+            this.comfortLevels = comfortLevels;
+            this.confidence = confidence;
+            this.reasoning = reasoning;
+        }
+
+        public boolean matches(double distanceKm, double budgetPerPassenger, String comfortLevel) {
+            return distanceKm >= minDistanceKm
+                    && distanceKm < maxDistanceKm
+                    && budgetPerPassenger >= minBudgetPerPassenger
+                    && (comfortLevels.isEmpty() || comfortLevels.contains(comfortLevel));
+        }
+
+        public String getMode() { return mode; }
+        public void setMode(String mode) { this.mode = mode; }
+
+        public double getMinDistanceKm() { return minDistanceKm; }
+        public void setMinDistanceKm(double minDistanceKm) { this.minDistanceKm = minDistanceKm; }
+
+        public double getMaxDistanceKm() { return maxDistanceKm; }
+        public void setMaxDistanceKm(double maxDistanceKm) { this.maxDistanceKm = maxDistanceKm; }
+
+        public double getMinBudgetPerPassenger() { return minBudgetPerPassenger; }
+        public void setMinBudgetPerPassenger(double minBudgetPerPassenger) { this.minBudgetPerPassenger = minBudgetPerPassenger; }
+
+        public List<String> getComfortLevels() { return comfortLevels; }
+        public void setComfortLevels(List<String> comfortLevels) { this.comfortLevels = comfortLevels; }
+
+        public double getConfidence() { return confidence; }
+        public void setConfidence(double confidence) { this.confidence = confidence; }
+
+        public String getReasoning() { return reasoning; }
+        public void setReasoning(String reasoning) { this.reasoning = reasoning; }
+    }
+}
@@ -48,6 +48,7 @@ public class SecurityConfig {
             	.requestMatchers(HttpMethod.OPTIONS, "/**").permitAll()
                 .requestMatchers("/api/auth/**", "/swagger-ui/**", "/v3/api-docs/**", "/api-docs/**").permitAll()
                 .requestMatchers("/api/admin/**").hasRole("ADMIN") //or hasAuthority("ROLE_ADMIN")
+                .requestMatchers("/actuator/metrics/**", "/actuator/circuitbreakers/**", "/actuator/circuitbreakerevents/**").hasRole("ADMIN")
                 .anyRequest().authenticated()
             )
             .sessionManagement(session -> session
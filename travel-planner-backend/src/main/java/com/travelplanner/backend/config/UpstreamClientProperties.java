@@ -0,0 +1,101 @@
+package com.travelplanner.backend.config;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Connection pool and timeout settings per upstream host (app.upstream.clients.&lt;name&gt;.*).
+ * Each named upstream gets its own pool, so a stalled host cannot take connections from another.
+ */
+@Component
+@ConfigurationProperties(prefix = "app.upstream")
+public class UpstreamClientProperties {
+
+    private Map<String, Client> clients = new LinkedHashMap<>();
+
+    public Map<String, Client> getClients() { return clients; }
+    public void setClients(Map<String, Client> clients) { this.clients = clients; }
+
+    /**
+     * Settings for the named upstream, or the defaults when it is not configured
+     */
+    public Client client(String name) {
+        return clients.getOrDefault(name, new Client());
+    }
+
+    public static class Client {
+        /** Maximum open connections to the host */
+        private int maxConnections = 16;
+
+        /** Requests allowed to wait for a free connection before failing fast */
+        private int pendingAcquireMaxCount = 64;
+
+        /** How long a request may wait for a free connection */
+        private Duration pendingAcquireTimeout = Duration.ofSeconds(5);
+
+        /** Idle connections are closed after this long */
+        private Duration maxIdleTime = Duration.ofSeconds(30);
+
+        /** Connections are recycled after this long, even when busy */
+        private Duration maxLifeTime = Duration.ofMinutes(5);
+
+        /** Interval of the background sweep that evicts idle and expired connections */
+        private Duration evictionInterval = Duration.ofSeconds(30);
+
+        private Duration connectTimeout = Duration.ofSeconds(3);
+
+        /** Time allowed between writing the request and receiving the response headers */
+        private Duration responseTimeout = Duration.ofSeconds(10);
+
+        /** Time allowed without reading any data once the response has started */
+        private Duration readTimeout = Duration.ofSeconds(10);
+
+        private boolean keepAlive = true;
+
+        /** Ask for gzip-compressed responses */
+        private boolean compress = true;
+
+        /** Largest response body kept in memory */
+        private int maxInMemorySize = 2 * 1024 * 1024;
+
+        public int getMaxConnections() { return maxConnections; }
+        public void setMaxConnections(int maxConnections) { this.maxConnections = maxConnections; }
+
+        public int getPendingAcquireMaxCount() { return pendingAcquireMaxCount; }
+        public void setPendingAcquireMaxCount(int pendingAcquireMaxCount) { this.pendingAcquireMaxCount = pendingAcquireMaxCount; }
+
+        public Duration getPendingAcquireTimeout() { return pendingAcquireTimeout; }
+        public void setPendingAcquireTimeout(Duration pendingAcquireTimeout) { this.pendingAcquireTimeout = pendingAcquireTimeout; }
+
+        public Duration getMaxIdleTime() { return maxIdleTime; }
+        public void setMaxIdleTime(Duration maxIdleTime) { this.maxIdleTime = maxIdleTime; }
+
+        public Duration getMaxLifeTime() { return maxLifeTime; }
+        public void setMaxLifeTime(Duration maxLifeTime) { this.maxLifeTime = maxLifeTime; }
+
+        public Duration getEvictionInterval() { return evictionInterval; }
+        public void setEvictionInterval(Duration evictionInterval) { this.evictionInterval = evictionInterval; }
+
+        public Duration getConnectTimeout() { return connectTimeout; }
+        public void setConnectTimeout(Duration connectTimeout) { this.connectTimeout = connectTimeout; }
+
+        public Duration getResponseTimeout() { return responseTimeout; }
+        public void setResponseTimeout(Duration responseTimeout) { this.responseTimeout = responseTimeout; }
+
+        public Duration getReadTimeout() { return readTimeout; }
+        public void setReadTimeout(Duration readTimeout) { this.readTimeout = readTimeout; }
+
+        public boolean isKeepAlive() { return keepAlive; }
+        public void setKeepAlive(boolean keepAlive) { this.keepAlive = keepAlive; }
+
+        public boolean isCompress() { return compress; }
+        public void setCompress(boolean compress) { this.compress = compress; }
+
+        public int getMaxInMemorySize() { return maxInMemorySize; }
+        public void setMaxInMemorySize(int maxInMemorySize) { this.maxInMemorySize = maxInMemorySize; }
+    }
+}
@@ -1,19 +1,88 @@
 package com.travelplanner.backend.config;
 
 
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.DisposableBean;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
 import org.springframework.web.reactive.function.client.WebClient;
 
+import io.netty.channel.ChannelOption;
+import io.netty.handler.timeout.ReadTimeoutHandler;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+/**
+ * One WebClient per upstream host, each on its own Reactor Netty connection pool with the
+ * limits and timeouts from {@link UpstreamClientProperties}. Pool metrics (active, idle and
+ * pending connections) are published under reactor.netty.connection.provider.* tagged
+ * with the pool name. The pools are disposed on shutdown.
+ */
 @Configuration
-public class WebClientConfig {
+public class WebClientConfig implements DisposableBean {
     
+    private final UpstreamClientProperties upstreamClientProperties;
+    private final List<ConnectionProvider> pools = new CopyOnWriteArrayList<>();
+
+    public WebClientConfig(UpstreamClientProperties upstreamClientProperties) {
+        this.upstreamClientProperties = upstreamClientProperties;
+    }
+
     @Bean
+    @Primary
     public WebClient webClient() {
+        return createClient("default");
+    }
+
+    @Bean
+    public WebClient nominatimWebClient() {
+        return createClient("nominatim");
+    }
+
+    @Bean
+    public WebClient openMeteoWebClient() {
+        return createClient("open-meteo");
+    }
+
+    private WebClient createClient(String name) {
+        UpstreamClientProperties.Client settings = upstreamClientProperties.client(name);
+        
+        ConnectionProvider pool = ConnectionProvider.builder(name)
+                .maxConnections(settings.getMaxConnections())
+                .pendingAcquireMaxCount(settings.getPendingAcquireMaxCount())
+                .pendingAcquireTimeout(settings.getPendingAcquireTimeout())
+                .maxIdleTime(settings.getMaxIdleTime())
+                .maxLifeTime(settings.getMaxLifeTime())
+                .evictInBackground(settings.getEvictionInterval())
+                .metrics(true)
+                .build();
+        pools.add(pool);
+        
+        HttpClient httpClient = HttpClient.create(pool)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) settings.getConnectTimeout().toMillis())
+                .responseTimeout(settings.getResponseTimeout())
+                .keepAlive(settings.isKeepAlive())
+                .compress(settings.isCompress())
+                .doOnConnected(connection -> connection.addHandlerLast(
+                        new ReadTimeoutHandler(settings.getReadTimeout().toMillis(), TimeUnit.MILLISECONDS)));
+        
         return WebClient.builder()
+                .clientConnector(new ReactorClientHttpConnector(httpClient))
                 .codecs(configurer -> configurer
                     .defaultCodecs()
-                    .maxInMemorySize(2 * 1024 * 1024)) // 2MB buffer
+                    .maxInMemorySize(settings.getMaxInMemorySize()))
                 .build();
     }
-}
+
+    @Override
+    public void destroy() {
+        // Closes the pooled connections and stops their background eviction
+        pools.forEach(ConnectionProvider::dispose);
+        pools.clear();
+    }
+}
\ No newline at end of file
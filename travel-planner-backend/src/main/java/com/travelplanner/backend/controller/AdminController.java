@@ -3,19 +3,34 @@ package com.travelplanner.backend.controller;
 import java.util.List;
 import java.util.Map;
 
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import reactor.core.publisher.Flux;
+
 import com.travelplanner.backend.dto.ChatHistoryDTO;
+import com.travelplanner.backend.dto.GeocodeBatchResultDTO;
 import com.travelplanner.backend.dto.TripResponseDTO;
 import com.travelplanner.backend.dto.UserProfileDTO;
 import com.travelplanner.backend.service.AdminService;
+import com.travelplanner.backend.service.GeocodeCache;
+import com.travelplanner.backend.service.GeocodingService;
+import com.travelplanner.backend.service.RequestDeadline;
+import com.travelplanner.backend.service.PromptCacheStore;
+import com.travelplanner.backend.service.PromptResponseCache;
+import com.travelplanner.backend.service.RouteRecommendationCache;
+import com.travelplanner.backend.service.WeatherCache;
 
 @RestController
 @RequestMapping("/api/admin")
@@ -23,9 +38,30 @@ import com.travelplanner.backend.service.AdminService;
 public class AdminController {
     
     private final AdminService adminService;
+    private final RouteRecommendationCache routeRecommendationCache;
+    private final GeocodeCache geocodeCache;
+    private final GeocodingService geocodingService;
+    private final WeatherCache weatherCache;
+    private final PromptResponseCache promptResponseCache;
+    private final PromptCacheStore promptCacheStore;
+    
+    @Value("${app.geocoding.import.max-size:10000}")
+    private int geocodingImportMaxSize;
     
-    public AdminController(AdminService adminService) {
+    @Value("${app.geocoding.import.max-concurrency:4}")
+    private int geocodingImportMaxConcurrency;
+    
+    public AdminController(AdminService adminService, RouteRecommendationCache routeRecommendationCache,
+                           GeocodeCache geocodeCache, GeocodingService geocodingService,
+                           WeatherCache weatherCache, PromptResponseCache promptResponseCache,
+                           PromptCacheStore promptCacheStore) {
         this.adminService = adminService;
+        this.routeRecommendationCache = routeRecommendationCache;
+        this.geocodeCache = geocodeCache;
+        this.geocodingService = geocodingService;
+        this.weatherCache = weatherCache;
+        this.promptResponseCache = promptResponseCache;
+        this.promptCacheStore = promptCacheStore;
     }
     
     @PreAuthorize("hasRole('ROLE_ADMIN')")
@@ -157,4 +193,126 @@ public class AdminController {
             ));
         }
     }
-}
\ No newline at end of file
+    
+    /**
+     * Route recommendation cache statistics
+     */
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    @GetMapping("/cache/routes")
+    public ResponseEntity<Map<String, Object>> getRouteCacheStats() {
+        return ResponseEntity.ok(routeRecommendationCache.getStats());
+    }
+    
+    /**
+     * Invalidate cached route recommendations, either everything or a single city pair
+     */
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    @DeleteMapping("/cache/routes")
+    public ResponseEntity<Map<String, Object>> invalidateRouteCache(
+            @RequestParam(required = false) String source,
+            @RequestParam(required = false) String destination,
+            @RequestParam(defaultValue = "true") boolean bothDirections) {
+        if ((source == null) != (destination == null)) {
+            return ResponseEntity.badRequest().body(Map.of(
+                "success", false,
+                "error", "Provide both source and destination, or neither to clear the whole cache"
+            ));
+        }
+        long invalidated = source == null
+                ? routeRecommendationCache.invalidateAll()
+                : routeRecommendationCache.invalidateRoute(source, destination, bothDirections);
+        return ResponseEntity.ok(Map.of(
+            "success", true,
+            "message", "Route cache invalidated",
+            "invalidatedEntries", invalidated
+        ));
+    }
+    
+    /**
+     * Geocoding cache statistics
+     */
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    @GetMapping("/cache/geocoding")
+    public ResponseEntity<Map<String, Object>> getGeocodingCacheStats() {
+        return ResponseEntity.ok(geocodeCache.getStats());
+    }
+    
+    /**
+     * Invalidate cached geocoding results, either everything or a single city
+     */
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    @DeleteMapping("/cache/geocoding")
+    public ResponseEntity<Map<String, Object>> invalidateGeocodingCache(
+            @RequestParam(required = false) String city) {
+        long invalidated = city == null
+                ? geocodeCache.invalidateAll()
+                : (geocodeCache.invalidate(city) ? 1 : 0);
+        return ResponseEntity.ok(Map.of(
+            "success", true,
+            "message", "Geocoding cache invalidated",
+            "invalidatedEntries", invalidated
+        ));
+    }
+    
+    /**
+     * Weather cache statistics
+     */
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    @GetMapping("/cache/weather")
+    public ResponseEntity<Map<String, Object>> getWeatherCacheStats() {
+        return ResponseEntity.ok(weatherCache.getStats());
+    }
+    
+    /**
+     * Drop all cached weather, e.g. after changing the cell precision
+     */
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    @DeleteMapping("/cache/weather")
+    public ResponseEntity<Map<String, Object>> invalidateWeatherCache() {
+        return ResponseEntity.ok(Map.of(
+            "success", true,
+            "message", "Weather cache invalidated",
+            "invalidatedEntries", weatherCache.invalidateAll()
+        ));
+    }
+    
+    /**
+     * Model prompt cache statistics (in-memory side)
+     */
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    @GetMapping("/cache/llm-prompts")
+    public ResponseEntity<Map<String, Object>> getPromptCacheStats() {
+        return ResponseEntity.ok(promptResponseCache.getStats());
+    }
+    
+    /**
+     * Drop all cached model responses, in memory and stored, e.g. after changing a prompt's wording
+     */
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    @DeleteMapping("/cache/llm-prompts")
+    public ResponseEntity<Map<String, Object>> invalidatePromptCache() {
+        return ResponseEntity.ok(Map.of(
+            "success", true,
+            "message", "Prompt cache invalidated",
+            "invalidatedEntries", promptCacheStore.invalidateAll()
+        ));
+    }
+    
+    /**
+     * Geocode a list of cities, streaming one result per distinct city as it resolves.
+     * Results are stored, so imported cities are served without outbound calls afterwards.
+     */
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    @PostMapping(value = "/geocoding/import", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<GeocodeBatchResultDTO> importCities(@RequestBody List<String> cities,
+            @RequestParam(defaultValue = "2") int concurrency) {
+        if (cities == null || cities.isEmpty()) {
+            throw new RuntimeException("At least one city is required");
+        }
+        if (cities.size() > geocodingImportMaxSize) {
+            throw new RuntimeException("An import can contain at most " + geocodingImportMaxSize + " cities");
+        }
+        int boundedConcurrency = Math.max(1, Math.min(concurrency, geocodingImportMaxConcurrency));
+        return geocodingService.geocodeCities(cities, boundedConcurrency, RequestDeadline.none());
+    }
+}
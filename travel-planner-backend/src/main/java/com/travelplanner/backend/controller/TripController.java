@@ -1,41 +1,74 @@
 
 package com.travelplanner.backend.controller;
 
+import java.net.URI;
+import java.time.Duration;
 import java.util.List;
 import java.util.Map;
 
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.core.userdetails.User;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import com.travelplanner.backend.Entities.Trip;
+import com.travelplanner.backend.dto.BatchTripResultDTO;
+import com.travelplanner.backend.dto.TripJobResponseDTO;
+import com.travelplanner.backend.dto.TripReplanRequest;
 import com.travelplanner.backend.dto.TripRequest;
 import com.travelplanner.backend.dto.TripResponseDTO;
+import com.travelplanner.backend.service.RequestDeadline;
+import com.travelplanner.backend.service.TripJobService;
 import com.travelplanner.backend.service.TripService;
 
+import reactor.core.publisher.Flux;
+
 @RestController
 @RequestMapping("/api/trips")
 @CrossOrigin(originPatterns = "*", maxAge = 3600)
 public class TripController {
     
     private final TripService tripService;
+    private final TripJobService tripJobService;
+
+    @Value("${app.deadline.trip-create:45s}")
+    private Duration createTripDeadline;
+
+    @Value("${app.deadline.trip-replan:45s}")
+    private Duration replanDeadline;
+
+    @Value("${app.deadline.trip-batch:300s}")
+    private Duration batchDeadline;
 
-    public TripController(TripService tripService) {
+    @Value("${app.trip-batch.max-size:100}")
+    private int batchMaxSize;
+
+    public TripController(TripService tripService, TripJobService tripJobService) {
         this.tripService = tripService;
+        this.tripJobService = tripJobService;
     }
     
     @PostMapping
     public ResponseEntity<?> createTrip(@RequestBody TripRequest request, 
+                                       @RequestParam(defaultValue = "false") boolean async,
                                        @AuthenticationPrincipal User user) {
+        if (async) {
+            return createTripJob(request, user);
+        }
         try {
-            Trip trip = tripService.createTrip(request, user.getUsername());
+            Trip trip = tripService.createTrip(request, user.getUsername(),
+                    RequestDeadline.within(createTripDeadline));
             TripResponseDTO responseDTO = new TripResponseDTO(trip);
             return ResponseEntity.ok(responseDTO);
         } catch (Exception e) {
@@ -43,6 +76,41 @@ public class TripController {
         }
     }
 
+    /**
+     * Async mode: queue the trip creation and return 202 with a job id to poll
+     */
+    private ResponseEntity<?> createTripJob(TripRequest request, User user) {
+        try {
+            TripJobResponseDTO job = tripJobService.submit(request, user.getUsername());
+            return ResponseEntity.accepted()
+                    .location(URI.create("/api/trips/jobs/" + job.getJobId()))
+                    .body(job);
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    /**
+     * Plans several trips at once; each trip's result is streamed back as NDJSON when it is ready
+     */
+    @PostMapping(value = "/batch", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<BatchTripResultDTO> createTrips(@RequestBody List<TripRequest> requests,
+                                       @AuthenticationPrincipal User user) {
+        if (requests == null || requests.isEmpty()) {
+            throw new RuntimeException("At least one trip request is required");
+        }
+        if (requests.size() > batchMaxSize) {
+            throw new RuntimeException("A batch can contain at most " + batchMaxSize + " trips");
+        }
+        return tripService.createTrips(requests, user.getUsername(), RequestDeadline.within(batchDeadline));
+    }
+
+    @GetMapping("/jobs/{jobId}")
+    public ResponseEntity<TripJobResponseDTO> getTripJob(@PathVariable String jobId,
+                                       @AuthenticationPrincipal User user) {
+        return ResponseEntity.ok(tripJobService.getJob(jobId, user.getUsername()));
+    }
+
     @GetMapping
     public ResponseEntity<List<TripResponseDTO>> getUserTrips(@AuthenticationPrincipal User user) {
     	List<TripResponseDTO> trips = tripService.getUserTrips(user.getUsername());
@@ -55,4 +123,20 @@ public class TripController {
         TripResponseDTO trip = tripService.getUserTrip(id, user.getUsername());
         return ResponseEntity.ok(trip);
     }
+
+    /**
+     * Re-plans a trip, recomputing only the stages whose inputs changed
+     */
+    @PatchMapping("/{id}/replan")
+    public ResponseEntity<?> replanTrip(@PathVariable Long id,
+                                       @RequestBody TripReplanRequest request,
+                                       @AuthenticationPrincipal User user) {
+        try {
+            TripResponseDTO trip = tripService.replanTrip(id, request, user.getUsername(),
+                    RequestDeadline.within(replanDeadline));
+            return ResponseEntity.ok(trip);
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
 }
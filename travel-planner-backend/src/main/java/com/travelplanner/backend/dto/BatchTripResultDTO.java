@@ -0,0 +1,35 @@
+package com.travelplanner.backend.dto;
+
+public class BatchTripResultDTO {
+    private int index;
+    private String status;
+    private TripResponseDTO trip;
+    private String error;
+
+    public BatchTripResultDTO() {}
+
+    public BatchTripResultDTO(int index, String status, TripResponseDTO trip, String error) {
+        this.index = index;
+        this.status = status;
+        this.trip = trip;
+        this.error = error;
+    }
+
+    public static BatchTripResultDTO created(int index, TripResponseDTO trip) {
+        return new BatchTripResultDTO(index, "CREATED", trip, null);
+    }
+
+    public static BatchTripResultDTO failed(int index, String error) {
+        return new BatchTripResultDTO(index, "FAILED", null, error);
+    }
+
+    // Getters and setters
+    public int getIndex() { return index; }
+    public void setIndex(int index) { this.index = index; }
+    public String getStatus() { return status; }
+    public void setStatus(String status) { this.status = status; }
+    public TripResponseDTO getTrip() { return trip; }
+    public void setTrip(TripResponseDTO trip) { this.trip = trip; }
+    public String getError() { return error; }
+    public void setError(String error) { this.error = error; }
+}
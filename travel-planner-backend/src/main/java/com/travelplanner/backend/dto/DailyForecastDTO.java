@@ -0,0 +1,49 @@
+package com.travelplanner.backend.dto;
+
+import java.time.LocalDate;
+
+public class DailyForecastDTO {
+    private LocalDate date;
+    private double temperatureMin;
+    private double temperatureMax;
+    private double windSpeedMax;
+    private double precipitation;
+    private int weatherCode;
+    private String condition;
+    private String travelAdvisory;
+    private double safetyScore;
+    private boolean suitableForTravel;
+
+    public DailyForecastDTO() {}
+
+    // Getters and Setters
+    public LocalDate getDate() { return date; }
+    public void setDate(LocalDate date) { this.date = date; }
+    
+    public double getTemperatureMin() { return temperatureMin; }
+    public void setTemperatureMin(double temperatureMin) { this.temperatureMin = temperatureMin; }
+    
+    public double getTemperatureMax() { return temperatureMax; }
+    public void setTemperatureMax(double temperatureMax) { this.temperatureMax = temperatureMax; }
+    
+    public double getWindSpeedMax() { return windSpeedMax; }
+    public void setWindSpeedMax(double windSpeedMax) { this.windSpeedMax = windSpeedMax; }
+    
+    public double getPrecipitation() { return precipitation; }
+    public void setPrecipitation(double precipitation) { this.precipitation = precipitation; }
+    
+    public int getWeatherCode() { return weatherCode; }
+    public void setWeatherCode(int weatherCode) { this.weatherCode = weatherCode; }
+    
+    public String getCondition() { return condition; }
+    public void setCondition(String condition) { this.condition = condition; }
+    
+    public String getTravelAdvisory() { return travelAdvisory; }
+    public void setTravelAdvisory(String travelAdvisory) { this.travelAdvisory = travelAdvisory; }
+    
+    public double getSafetyScore() { return safetyScore; }
+    public void setSafetyScore(double safetyScore) { this.safetyScore = safetyScore; }
+    
+    public boolean isSuitableForTravel() { return suitableForTravel; }
+    public void setSuitableForTravel(boolean suitableForTravel) { this.suitableForTravel = suitableForTravel; }
+}
@@ -0,0 +1,54 @@
+package com.travelplanner.backend.dto;
+
+import java.util.Map;
+
+public class GeocodeBatchResultDTO {
+    private String city;
+    private String status;
+    private double lat;
+    private double lng;
+    private String displayName;
+    private String error;
+
+    public GeocodeBatchResultDTO() {}
+
+    public GeocodeBatchResultDTO(String city, String status, double lat, double lng,
+                                 String displayName, String error) {
+        this.city = city;
+        this.status = status;
+        this.lat = lat;
+        this.lng = lng;
+        this.displayName = displayName;
+        this.error = error;
+    }
+
+    public static GeocodeBatchResultDTO resolved(String city, GeocodeResult result) {
+        return new GeocodeBatchResultDTO(city, "RESOLVED", result.getLat(), result.getLng(),
+                result.getDisplayName(), null);
+    }
+
+    /**
+     * The city could not be geocoded; lat/lng hold the approximate fallback coordinates
+     */
+    public static GeocodeBatchResultDTO fallback(String city, Map<String, Double> coords, String error) {
+        return new GeocodeBatchResultDTO(city, "FALLBACK", coords.get("lat"), coords.get("lng"), null, error);
+    }
+
+    public boolean isResolved() {
+        return "RESOLVED".equals(status);
+    }
+
+    // Getters and setters
+    public String getCity() { return city; }
+    public void setCity(String city) { this.city = city; }
+    public String getStatus() { return status; }
+    public void setStatus(String status) { this.status = status; }
+    public double getLat() { return lat; }
+    public void setLat(double lat) { this.lat = lat; }
+    public double getLng() { return lng; }
+    public void setLng(double lng) { this.lng = lng; }
+    public String getDisplayName() { return displayName; }
+    public void setDisplayName(String displayName) { this.displayName = displayName; }
+    public String getError() { return error; }
+    public void setError(String error) { this.error = error; }
+}
@@ -0,0 +1,69 @@
+package com.travelplanner.backend.dto;
+
+/**
+ * Outcome of a single Nominatim lookup, kept in the geocoding cache. Misses and upstream
+ * failures are cached too, with {@code found} false, so they expire on a shorter TTL.
+ */
+public class GeocodeResult {
+    private boolean found;
+    private double lat;
+    private double lng;
+    private String displayName;
+    private String country;
+    private String type;
+    private String error;
+
+    public GeocodeResult() {}
+
+    public static GeocodeResult found(double lat, double lng, String displayName, String country, String type) {
+        GeocodeResult result = new GeocodeResult();
+        result.found = true;
+        result.lat = lat;
+        result.lng = lng;
+        result.displayName = displayName;
+        result.country = country;
+        result.type = type;
+        return result;
+    }
+
+    public static GeocodeResult notFound() {
+        GeocodeResult result = new GeocodeResult();
+        result.error = "Location not found";
+        return result;
+    }
+
+    public static GeocodeResult unavailable() {
+        GeocodeResult result = new GeocodeResult();
+        result.error = "Geocoding service unavailable";
+        return result;
+    }
+
+    /**
+     * True when the lookup failed rather than returning no results
+     */
+    public boolean isUnavailable() {
+        return !found && "Geocoding service unavailable".equals(error);
+    }
+
+    // Getters and Setters
+    public boolean isFound() { return found; }
+    public void setFound(boolean found) { this.found = found; }
+    
+    public double getLat() { return lat; }
+    public void setLat(double lat) { this.lat = lat; }
+    
+    public double getLng() { return lng; }
+    public void setLng(double lng) { this.lng = lng; }
+    
+    public String getDisplayName() { return displayName; }
+    public void setDisplayName(String displayName) { this.displayName = displayName; }
+    
+    public String getCountry() { return country; }
+    public void setCountry(String country) { this.country = country; }
+    
+    public String getType() { return type; }
+    public void setType(String type) { this.type = type; }
+    
+    public String getError() { return error; }
+    public void setError(String error) { this.error = error; }
+}
@@ -0,0 +1,27 @@
+package com.travelplanner.backend.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * One result of a Nominatim /search call. Only the fields we read are mapped; the decoder
+ * skips everything else (bounding box, licence, osm ids, unused address parts) while parsing.
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public record NominatimPlace(
+        double lat,
+        double lon,
+        @JsonProperty("display_name") String displayName,
+        String type,
+        Address address) {
+
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public record Address(
+            String city,
+            String town,
+            String village,
+            String municipality,
+            String county,
+            String state,
+            String country) {}
+}
@@ -0,0 +1,19 @@
+package com.travelplanner.backend.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * Open-Meteo forecast response reduced to the current_weather block; the decoder skips the
+ * rest of the document while parsing.
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public record OpenMeteoCurrentResponse(
+        @JsonProperty("current_weather") CurrentWeather currentWeather) {
+
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public record CurrentWeather(
+            double temperature,
+            double windspeed,
+            int weathercode) {}
+}
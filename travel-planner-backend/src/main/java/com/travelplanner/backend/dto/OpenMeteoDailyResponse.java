@@ -0,0 +1,21 @@
+package com.travelplanner.backend.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * Open-Meteo daily forecast response. Series are bound straight into primitive arrays;
+ * everything outside the daily block is skipped while parsing.
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public record OpenMeteoDailyResponse(Daily daily) {
+
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public record Daily(
+            String[] time,
+            int[] weathercode,
+            @JsonProperty("temperature_2m_max") double[] temperatureMax,
+            @JsonProperty("temperature_2m_min") double[] temperatureMin,
+            @JsonProperty("windspeed_10m_max") double[] windSpeedMax,
+            @JsonProperty("precipitation_sum") double[] precipitationSum) {}
+}
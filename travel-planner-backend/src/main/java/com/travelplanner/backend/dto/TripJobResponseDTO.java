@@ -0,0 +1,51 @@
+package com.travelplanner.backend.dto;
+
+import java.time.LocalDateTime;
+
+import com.travelplanner.backend.Entities.TripJob;
+
+public class TripJobResponseDTO {
+    private String jobId;
+    private String status;
+    private String stage;
+    private Integer progress;
+    private Long tripId;
+    private String error;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+    private TripResponseDTO trip;
+
+    public TripJobResponseDTO() {}
+
+    // Constructor from TripJob entity
+    public TripJobResponseDTO(TripJob job) {
+        this.jobId = job.getId();
+        this.status = job.getStatus().name();
+        this.stage = job.getStage();
+        this.progress = job.getProgress();
+        this.tripId = job.getTripId();
+        this.error = job.getErrorMessage();
+        this.createdAt = job.getCreatedAt();
+        this.updatedAt = job.getUpdatedAt();
+    }
+
+    // Getters and setters
+    public String getJobId() { return jobId; }
+    public void setJobId(String jobId) { this.jobId = jobId; }
+    public String getStatus() { return status; }
+    public void setStatus(String status) { this.status = status; }
+    public String getStage() { return stage; }
+    public void setStage(String stage) { this.stage = stage; }
+    public Integer getProgress() { return progress; }
+    public void setProgress(Integer progress) { this.progress = progress; }
+    public Long getTripId() { return tripId; }
+    public void setTripId(Long tripId) { this.tripId = tripId; }
+    public String getError() { return error; }
+    public void setError(String error) { this.error = error; }
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+    public LocalDateTime getUpdatedAt() { return updatedAt; }
+    public void setUpdatedAt(LocalDateTime updatedAt) { this.updatedAt = updatedAt; }
+    public TripResponseDTO getTrip() { return trip; }
+    public void setTrip(TripResponseDTO trip) { this.trip = trip; }
+}
@@ -0,0 +1,54 @@
+package com.travelplanner.backend.dto;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import com.travelplanner.backend.Entities.Trip;
+
+import jakarta.validation.constraints.Min;
+
+/**
+ * Changes to an existing trip; fields left null keep their current value.
+ */
+public class TripReplanRequest {
+    private String sourceCity;
+    private String destinationCity;
+    
+    @Min(value = 1, message = "At least 1 passenger is required")
+    private Integer passengers;
+    
+    @Min(value = 0, message = "Budget cannot be negative")
+    private Double budget;
+    
+    private Trip.ComfortLevel comfortLevel;
+    private List<String> interests;
+    private Integer tripDuration;
+    private LocalDate startDate;
+
+    public TripReplanRequest() {}
+
+    // Getters and Setters
+    public String getSourceCity() { return sourceCity; }
+    public void setSourceCity(String sourceCity) { this.sourceCity = sourceCity; }
+    
+    public String getDestinationCity() { return destinationCity; }
+    public void setDestinationCity(String destinationCity) { this.destinationCity = destinationCity; }
+    
+    public Integer getPassengers() { return passengers; }
+    public void setPassengers(Integer passengers) { this.passengers = passengers; }
+    
+    public Double getBudget() { return budget; }
+    public void setBudget(Double budget) { this.budget = budget; }
+    
+    public Trip.ComfortLevel getComfortLevel() { return comfortLevel; }
+    public void setComfortLevel(Trip.ComfortLevel comfortLevel) { this.comfortLevel = comfortLevel; }
+    
+    public List<String> getInterests() { return interests; }
+    public void setInterests(List<String> interests) { this.interests = interests; }
+    
+    public Integer getTripDuration() { return tripDuration; }
+    public void setTripDuration(Integer tripDuration) { this.tripDuration = tripDuration; }
+    
+    public LocalDate getStartDate() { return startDate; }
+    public void setStartDate(LocalDate startDate) { this.startDate = startDate; }
+}
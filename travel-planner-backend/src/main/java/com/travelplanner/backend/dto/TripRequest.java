@@ -1,5 +1,6 @@
 package com.travelplanner.backend.dto;
 
+import java.time.LocalDate;
 import java.util.List;
 
 import com.travelplanner.backend.Entities.Trip;
@@ -27,6 +28,7 @@ public class TripRequest {
     // New fields for enhanced planning
     private List<String> interests; // e.g., "historical, nature, food"
     private Integer tripDuration; // in days
+    private LocalDate startDate; // first travel day, used for the daily forecast
 
     // Constructors
     public TripRequest() {}
@@ -68,4 +70,7 @@ public class TripRequest {
 
 	public Integer getTripDuration() { return tripDuration; }
     public void setTripDuration(Integer tripDuration) { this.tripDuration = tripDuration; }
+    
+    public LocalDate getStartDate() { return startDate; }
+    public void setStartDate(LocalDate startDate) { this.startDate = startDate; }
 }
\ No newline at end of file
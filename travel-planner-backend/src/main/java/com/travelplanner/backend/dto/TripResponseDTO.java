@@ -1,6 +1,7 @@
 package com.travelplanner.backend.dto;
 
 import com.travelplanner.backend.Entities.Trip;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.stream.Collectors;
@@ -23,6 +24,11 @@ public class TripResponseDTO {
     
     private String conversationId;
     private boolean hasChatHistory;
+    private List<String> degradedStages;
+    private LocalDate startDate;
+    private List<DailyForecastDTO> forecast;
+    private List<String> reusedStages;
+    private List<String> recomputedStages;
     
     // Constructor from Trip entity
     public TripResponseDTO(Trip trip) {
@@ -41,6 +47,9 @@ public class TripResponseDTO {
         this.username = trip.getUser().getUsername();
         this.conversationId = trip.getConversationId();
         this.hasChatHistory = trip.getConversationId() != null;
+        this.degradedStages = trip.getDegradedStages();
+        this.startDate = trip.getStartDate();
+        this.forecast = trip.getForecast();
         
         // Safe conversion of places
         if (trip.getRecommendedPlaces() != null) {
@@ -95,4 +104,44 @@ public class TripResponseDTO {
     public void setHasChatHistory(boolean hasChatHistory) { 
         this.hasChatHistory = hasChatHistory; 
     }
+    
+    public List<String> getDegradedStages() { 
+        return degradedStages; 
+    }
+    
+    public void setDegradedStages(List<String> degradedStages) { 
+        this.degradedStages = degradedStages; 
+    }
+    
+    public LocalDate getStartDate() { 
+        return startDate; 
+    }
+    
+    public void setStartDate(LocalDate startDate) { 
+        this.startDate = startDate; 
+    }
+    
+    public List<DailyForecastDTO> getForecast() { 
+        return forecast; 
+    }
+    
+    public void setForecast(List<DailyForecastDTO> forecast) { 
+        this.forecast = forecast; 
+    }
+    
+    public List<String> getReusedStages() { 
+        return reusedStages; 
+    }
+    
+    public void setReusedStages(List<String> reusedStages) { 
+        this.reusedStages = reusedStages; 
+    }
+    
+    public List<String> getRecomputedStages() { 
+        return recomputedStages; 
+    }
+    
+    public void setRecomputedStages(List<String> recomputedStages) { 
+        this.recomputedStages = recomputedStages; 
+    }
 }
\ No newline at end of file
@@ -0,0 +1,23 @@
+package com.travelplanner.backend.repository;
+
+import java.util.List;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.travelplanner.backend.Entities.GeocodedLocation;
+
+@Repository
+public interface GeocodedLocationRepository extends JpaRepository<GeocodedLocation, String> {
+    
+    // Most used locations first, for warming the in-memory cache
+    List<GeocodedLocation> findAllByOrderByHitCountDescUpdatedAtDesc(Pageable pageable);
+    
+    @Modifying
+    @Query("UPDATE GeocodedLocation g SET g.hitCount = g.hitCount + 1 WHERE g.name = :name")
+    int incrementHitCount(@Param("name") String name);
+}
@@ -0,0 +1,33 @@
+package com.travelplanner.backend.repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.travelplanner.backend.Entities.LlmPromptCacheEntry;
+
+@Repository
+public interface LlmPromptCacheRepository extends JpaRepository<LlmPromptCacheEntry, String> {
+    
+    Optional<LlmPromptCacheEntry> findByPromptHashAndExpiresAtAfter(String promptHash, LocalDateTime now);
+    
+    // Most used live entries first, for warming the in-memory cache
+    List<LlmPromptCacheEntry> findAllByExpiresAtAfterOrderByHitCountDesc(LocalDateTime now, Pageable pageable);
+    
+    @Modifying
+    @Query("UPDATE LlmPromptCacheEntry e SET e.hitCount = e.hitCount + 1 WHERE e.promptHash = :promptHash")
+    int incrementHitCount(@Param("promptHash") String promptHash);
+    
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM LlmPromptCacheEntry e WHERE e.expiresAt < :now")
+    int deleteExpired(@Param("now") LocalDateTime now);
+}
@@ -0,0 +1,49 @@
+package com.travelplanner.backend.repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.travelplanner.backend.Entities.TripJob;
+
+@Repository
+public interface TripJobRepository extends JpaRepository<TripJob, String> {
+    Optional<TripJob> findByIdAndUsername(String id, String username);
+    
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM TripJob j WHERE j.status IN :statuses AND j.updatedAt < :cutoff")
+    int deleteByStatusUpdatedBefore(@Param("statuses") Collection<TripJob.Status> statuses,
+            @Param("cutoff") LocalDateTime cutoff);
+    
+    @Transactional
+    @Modifying
+    @Query("UPDATE TripJob j SET j.updatedAt = :now WHERE j.id IN :ids AND j.status IN :statuses")
+    int touch(@Param("ids") Collection<String> ids, @Param("statuses") Collection<TripJob.Status> statuses,
+            @Param("now") LocalDateTime now);
+    
+    @Transactional
+    @Modifying
+    @Query("UPDATE TripJob j SET j.status = com.travelplanner.backend.Entities.TripJob.Status.FAILED, "
+            + "j.errorMessage = :errorMessage, j.updatedAt = :now "
+            + "WHERE j.ownerNode = :ownerNode AND j.status IN :statuses AND j.updatedAt < :cutoff")
+    int failOwnedUpdatedBefore(@Param("ownerNode") String ownerNode,
+            @Param("statuses") Collection<TripJob.Status> statuses, @Param("cutoff") LocalDateTime cutoff,
+            @Param("errorMessage") String errorMessage, @Param("now") LocalDateTime now);
+    
+    @Transactional
+    @Modifying
+    @Query("UPDATE TripJob j SET j.status = com.travelplanner.backend.Entities.TripJob.Status.FAILED, "
+            + "j.errorMessage = :errorMessage, j.updatedAt = :now "
+            + "WHERE j.status IN :statuses AND j.updatedAt < :cutoff")
+    int failByStatusUpdatedBefore(@Param("statuses") Collection<TripJob.Status> statuses,
+            @Param("cutoff") LocalDateTime cutoff, @Param("errorMessage") String errorMessage,
+            @Param("now") LocalDateTime now);
+}
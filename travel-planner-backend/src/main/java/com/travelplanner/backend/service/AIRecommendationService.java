@@ -1,5 +1,6 @@
 package com.travelplanner.backend.service;
 
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -12,6 +13,7 @@ import org.springframework.ai.chat.prompt.Prompt;
 import org.springframework.stereotype.Service;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.travelplanner.backend.ai.PromptCachingChatModel;
 
 @Service
 public class AIRecommendationService {
@@ -20,10 +22,93 @@ public class AIRecommendationService {
     
     private final ChatModel chatModel;
     private final ObjectMapper objectMapper;
+    private final RouteEstimationService routeEstimationService;
+    private final RouteRecommendationCache routeCache;
 
-    public AIRecommendationService(ChatModel chatModel, ObjectMapper objectMapper) {
-        this.chatModel = chatModel;
+    public AIRecommendationService(ChatModel chatModel, ObjectMapper objectMapper,
+            RouteEstimationService routeEstimationService, RouteRecommendationCache routeCache) {
+        this.chatModel = PromptCachingChatModel.forCallSite(chatModel, "route-recommendation",
+                this::isRecommendationJson);
         this.objectMapper = objectMapper;
+        this.routeEstimationService = routeEstimationService;
+        this.routeCache = routeCache;
+    }
+
+    /**
+     * Route recommendation when the coordinates are known. The local rule engine answers
+     * confident cases on its own; otherwise the LLM picks the mode and the computed road
+     * distance replaces its estimate. Pass null coordinates when geocoding fell back.
+     * Results are cached per route, comfort level, budget band and weather class;
+     * fallback results are never cached, and a hit gets reasoning for its own budget.
+     */
+    public Map<String, Object> getTravelRecommendation(
+            String source, String destination,
+            Map<String, Double> sourceCoords, Map<String, Double> destCoords,
+            int passengers, double budget,
+            String comfortLevel, String sourceWeather,
+            String destWeather, RequestDeadline deadline) {
+        
+        RouteRecommendationCache.RouteKey key = routeCache.key(source, destination, comfortLevel,
+                passengers, budget, sourceWeather, destWeather);
+        Map<String, Object> cached = routeCache.get(key);
+        if (cached != null) {
+            log.info("Route recommendation cache hit for {} -> {}", source, destination);
+            Map<String, Object> result = new HashMap<>(cached);
+            Object distance = cached.get("distanceEstimate");
+            result.put("reasoning", routeEstimationService.describe(String.valueOf(cached.get("recommendedMode")),
+                    distance instanceof Number number ? number.doubleValue() : 0.0,
+                    passengers, budget, comfortLevel));
+            return result;
+        }
+        
+        Map<String, Object> recommendation = recommendRoute(source, destination, sourceCoords, destCoords,
+                passengers, budget, comfortLevel, sourceWeather, destWeather, deadline);
+        
+        // Don't cache fallbacks or answers built on fallback coordinates
+        if (!deadline.isDegraded() && sourceCoords != null && destCoords != null) {
+            routeCache.put(key, recommendation);
+        }
+        return recommendation;
+    }
+
+    private Map<String, Object> recommendRoute(
+            String source, String destination,
+            Map<String, Double> sourceCoords, Map<String, Double> destCoords,
+            int passengers, double budget,
+            String comfortLevel, String sourceWeather,
+            String destWeather, RequestDeadline deadline) {
+        
+        if (sourceCoords == null || destCoords == null) {
+            return getTravelRecommendation(source, destination, passengers, budget,
+                    comfortLevel, sourceWeather, destWeather, deadline);
+        }
+        
+        Map<String, Object> estimate = routeEstimationService.estimate(
+                sourceCoords.get("lat"), sourceCoords.get("lng"),
+                destCoords.get("lat"), destCoords.get("lng"),
+                passengers, budget, comfortLevel);
+        
+        if (routeEstimationService.isConfident(estimate)) {
+            log.info("Route {} -> {} resolved by rules: {}", source, destination, estimate);
+            if (!routeEstimationService.isLlmReasoningEnabled()) {
+                return estimate;
+            }
+            
+            // Only the reasoning text comes from the LLM; a failure there keeps the rule's reasoning
+            RequestDeadline reasoningDeadline = deadline.fork();
+            Map<String, Object> llmRecommendation = getTravelRecommendation(source, destination, passengers, budget,
+                    comfortLevel, sourceWeather, destWeather, reasoningDeadline);
+            Map<String, Object> result = new HashMap<>(estimate);
+            if (reasoningDeadline.getDegradedStages().isEmpty() && llmRecommendation.get("reasoning") != null) {
+                result.put("reasoning", llmRecommendation.get("reasoning"));
+            }
+            return result;
+        }
+        
+        Map<String, Object> result = new HashMap<>(getTravelRecommendation(source, destination, passengers, budget,
+                comfortLevel, sourceWeather, destWeather, deadline));
+        result.put("distanceEstimate", estimate.get("distanceEstimate"));
+        return result;
     }
 
     public Map<String, Object> getTravelRecommendation(
@@ -31,6 +116,18 @@ public class AIRecommendationService {
             int passengers, double budget, 
             String comfortLevel, String sourceWeather, 
             String destWeather) {
+        return getTravelRecommendation(source, destination, passengers, budget,
+                comfortLevel, sourceWeather, destWeather, RequestDeadline.none());
+    }
+
+    /**
+     * Route recommendation within the remaining request budget; falls back to heuristics when it runs out
+     */
+    public Map<String, Object> getTravelRecommendation(
+            String source, String destination, 
+            int passengers, double budget, 
+            String comfortLevel, String sourceWeather, 
+            String destWeather, RequestDeadline deadline) {
         
         try {
             String promptText = """
@@ -62,16 +159,29 @@ public class AIRecommendationService {
             UserMessage userMessage = new UserMessage(promptText);
             Prompt prompt = new Prompt(List.of(systemMessage, userMessage));
             
-            String response = chatModel.call(prompt).getResult().getOutput().getText();
+            String response = deadline.call(() -> chatModel.call(prompt).getResult().getOutput().getText());
             
             return parseAIResponse(response);
             
         } catch (Exception e) {
             // Fallback recommendations
+            log.warn("Route recommendation failed, using fallback: {}", e.getMessage());
+            deadline.markDegraded();
             return getFallbackRecommendation(source, destination, budget, comfortLevel);
         }
     }
 
+    /**
+     * Whether an answer carries a parsable recommendation, i.e. is worth caching
+     */
+    private boolean isRecommendationJson(String response) {
+        try {
+            return objectMapper.readTree(extractJsonFromResponse(response)).hasNonNull("recommendedMode");
+        } catch (Exception e) {
+            return false;
+        }
+    }
+
     private Map<String, Object> parseAIResponse(String response) {
         try {
             // Try to parse as JSON
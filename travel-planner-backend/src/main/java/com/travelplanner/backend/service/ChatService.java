@@ -10,6 +10,7 @@ import org.springframework.ai.chat.model.ChatResponse;
 import org.springframework.ai.chat.prompt.Prompt;
 import org.springframework.stereotype.Service;
 
+import com.travelplanner.backend.ai.PromptCachingChatModel;
 import com.travelplanner.backend.Entities.ChatHistory;
 import com.travelplanner.backend.Entities.User;
 import com.travelplanner.backend.repository.ChatHistoryRepository;
@@ -24,7 +25,7 @@ public class ChatService {
     public ChatService(ChatHistoryRepository chatHistoryRepository, UserService userService, ChatModel chatModel) {
         this.chatHistoryRepository = chatHistoryRepository;
         this.userService = userService;
-        this.chatModel = chatModel;
+        this.chatModel = PromptCachingChatModel.forCallSite(chatModel, "chat");
     }
 
     public ChatHistory processMessage(String message, String username, String conversationId) {
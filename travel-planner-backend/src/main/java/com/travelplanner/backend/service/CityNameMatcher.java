@@ -0,0 +1,212 @@
+package com.travelplanner.backend.service;
+
+import java.text.Normalizer;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Function;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+/**
+ * Scores how well candidate place names match a requested city. Names are folded once
+ * (accents and diacritics removed, punctuation dropped, doubled vowels collapsed so
+ * "Chennaai"/"Chennai" or "Pondichéry"/"Pondichery" line up), split into tokens and, when
+ * needed, reduced to a sorted array of packed trigrams. Compiled names are cached, so the
+ * state and district names Nominatim repeats across results are only processed once.
+ */
+public class CityNameMatcher {
+
+    public static final double EXACT = 1.0;
+    public static final double TOKEN_MATCH = 0.9;
+    public static final double DEFAULT_MIN_SCORE = 0.5;
+
+    private final Cache<String, Name> compiledNames;
+
+    public CityNameMatcher(long maxCachedNames) {
+        this.compiledNames = Caffeine.newBuilder().maximumSize(maxCachedNames).build();
+    }
+
+    /**
+     * Returns the candidate whose best-scoring name ranks highest, or null when no candidate
+     * reaches {@link #DEFAULT_MIN_SCORE}. Ties keep the earlier candidate.
+     */
+    public <T> T bestMatch(String requestedCity, List<T> candidates, Function<T, List<String>> namesOf) {
+        Name requested = compile(requestedCity);
+        T best = null;
+        double bestScore = DEFAULT_MIN_SCORE;
+        for (T candidate : candidates) {
+            double score = 0;
+            for (String name : namesOf.apply(candidate)) {
+                score = Math.max(score, score(requested, compile(name)));
+                if (score == EXACT) {
+                    return candidate;
+                }
+            }
+            if (score > bestScore || (best == null && score == bestScore)) {
+                best = candidate;
+                bestScore = score;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Precomputes the folded form and tokens of a name, reusing earlier compilations
+     */
+    public Name compile(String name) {
+        return name == null ? Name.EMPTY : compiledNames.get(name, Name::new);
+    }
+
+    /**
+     * Similarity in [0, 1]: 1 for an identical folded name, 0.9 when every token of the shorter
+     * name appears in the longer one, otherwise the Dice coefficient of the trigram sets scaled
+     * below the token match
+     */
+    public static double score(Name requested, Name candidate) {
+        if (requested.folded.isEmpty() || candidate.folded.isEmpty()) {
+            return 0;
+        }
+        if (requested.folded.equals(candidate.folded)) {
+            return EXACT;
+        }
+        if (containsAllTokens(requested.tokens, candidate.tokens)
+                || containsAllTokens(candidate.tokens, requested.tokens)) {
+            return TOKEN_MATCH;
+        }
+        long[] a = requested.trigrams();
+        long[] b = candidate.trigrams();
+        int shared = 0;
+        int i = 0;
+        int j = 0;
+        while (i < a.length && j < b.length) {
+            if (a[i] == b[j]) {
+                shared++;
+                i++;
+                j++;
+            } else if (a[i] < b[j]) {
+                i++;
+            } else {
+                j++;
+            }
+        }
+        return 0.8 * (2.0 * shared / (a.length + b.length));
+    }
+
+    /**
+     * Lower-cases, strips combining marks, turns runs of non-alphanumerics into a single space
+     * and collapses doubled vowels, in one pass. Pure ASCII input skips Unicode decomposition.
+     */
+    static String fold(String name) {
+        String source = isAscii(name) ? name : Normalizer.normalize(name, Normalizer.Form.NFD);
+        StringBuilder folded = new StringBuilder(source.length());
+        boolean pendingSpace = false;
+        char last = 0;
+        for (int i = 0; i < source.length(); i++) {
+            char c = source.charAt(i);
+            int type = Character.getType(c);
+            if (type == Character.NON_SPACING_MARK || type == Character.COMBINING_SPACING_MARK
+                    || type == Character.ENCLOSING_MARK) {
+                continue;
+            }
+            if (!Character.isLetterOrDigit(c)) {
+                pendingSpace = true;
+                continue;
+            }
+            c = Character.toLowerCase(c);
+            if (pendingSpace && folded.length() > 0) {
+                folded.append(' ');
+                last = ' ';
+            }
+            pendingSpace = false;
+            if (c == last && isVowel(c)) {
+                continue;
+            }
+            folded.append(c);
+            last = c;
+        }
+        return folded.toString();
+    }
+
+    private static boolean isAscii(String value) {
+        for (int i = 0; i < value.length(); i++) {
+            if (value.charAt(i) >= 0x80) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isVowel(char c) {
+        return c == 'a' || c == 'e' || c == 'i' || c == 'o' || c == 'u';
+    }
+
+    private static boolean containsAllTokens(String[] tokens, String[] within) {
+        if (tokens.length == 0 || tokens.length > within.length) {
+            return false;
+        }
+        for (String token : tokens) {
+            boolean found = false;
+            for (String other : within) {
+                if (token.equals(other)) {
+                    found = true;
+                    break;
+                }
+            }
+            if (!found) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * A folded name with its tokens; trigrams are computed on first use since exact and
+     * token matches usually settle the comparison
+     */
+    public static final class Name {
+
+        static final Name EMPTY = new Name("");
+
+        private final String folded;
+        private final String[] tokens;
+        private volatile long[] trigrams;
+
+        Name(String name) {
+            this.folded = fold(name);
+            this.tokens = folded.isEmpty() ? new String[0] : folded.split(" ");
+        }
+
+        public String folded() {
+            return folded;
+        }
+
+        long[] trigrams() {
+            long[] grams = trigrams;
+            if (grams == null) {
+                grams = computeTrigrams(folded);
+                trigrams = grams;
+            }
+            return grams;
+        }
+
+        /**
+         * Sorted, de-duplicated trigrams of the name padded with spaces, three chars per long
+         */
+        private static long[] computeTrigrams(String folded) {
+            String padded = " " + folded + " ";
+            long[] grams = new long[padded.length() - 2];
+            for (int i = 0; i < grams.length; i++) {
+                grams[i] = ((long) padded.charAt(i) << 32) | ((long) padded.charAt(i + 1) << 16) | padded.charAt(i + 2);
+            }
+            Arrays.sort(grams);
+            int unique = 0;
+            for (int i = 0; i < grams.length; i++) {
+                if (i == 0 || grams[i] != grams[i - 1]) {
+                    grams[unique++] = grams[i];
+                }
+            }
+            return Arrays.copyOf(grams, unique);
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.travelplanner.backend.service;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+
+import com.travelplanner.backend.dto.OpenMeteoDailyResponse;
+
+/**
+ * Daily forecast for one geocell held in parallel primitive arrays, one slot per consecutive
+ * day starting at {@code firstDay}. A 16-day series is a handful of small arrays instead of
+ * a list of boxed per-day objects.
+ */
+public class DailyForecastSeries {
+
+    private final long firstEpochDay;
+    private final int[] weatherCode;
+    private final double[] temperatureMax;
+    private final double[] temperatureMin;
+    private final double[] windSpeedMax;
+    private final double[] precipitationSum;
+
+    private DailyForecastSeries(long firstEpochDay, int[] weatherCode, double[] temperatureMax,
+            double[] temperatureMin, double[] windSpeedMax, double[] precipitationSum) {
+        this.firstEpochDay = firstEpochDay;
+        this.weatherCode = weatherCode;
+        this.temperatureMax = temperatureMax;
+        this.temperatureMin = temperatureMin;
+        this.windSpeedMax = windSpeedMax;
+        this.precipitationSum = precipitationSum;
+    }
+
+    public static DailyForecastSeries from(OpenMeteoDailyResponse.Daily daily) {
+        if (daily == null || daily.time() == null || daily.time().length == 0) {
+            return new DailyForecastSeries(0, new int[0], new double[0], new double[0], new double[0], new double[0]);
+        }
+        int days = daily.time().length;
+        return new DailyForecastSeries(
+                LocalDate.parse(daily.time()[0]).toEpochDay(),
+                sized(daily.weathercode(), days),
+                sized(daily.temperatureMax(), days),
+                sized(daily.temperatureMin(), days),
+                sized(daily.windSpeedMax(), days),
+                sized(daily.precipitationSum(), days));
+    }
+
+    /**
+     * Slot for the given date, or -1 when it is outside the forecast horizon
+     */
+    public int indexOf(LocalDate date) {
+        long index = date.toEpochDay() - firstEpochDay;
+        return index >= 0 && index < weatherCode.length ? (int) index : -1;
+    }
+
+    public LocalDate dateAt(int index) { return LocalDate.ofEpochDay(firstEpochDay + index); }
+    public int weatherCodeAt(int index) { return weatherCode[index]; }
+    public double temperatureMaxAt(int index) { return temperatureMax[index]; }
+    public double temperatureMinAt(int index) { return temperatureMin[index]; }
+    public double windSpeedMaxAt(int index) { return windSpeedMax[index]; }
+    public double precipitationAt(int index) { return precipitationSum[index]; }
+
+    private static int[] sized(int[] values, int length) {
+        return values == null ? new int[length] : Arrays.copyOf(values, length);
+    }
+
+    private static double[] sized(double[] values, int length) {
+        return values == null ? new double[length] : Arrays.copyOf(values, length);
+    }
+}
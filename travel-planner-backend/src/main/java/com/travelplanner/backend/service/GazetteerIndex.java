@@ -0,0 +1,225 @@
+package com.travelplanner.backend.service;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * Read-only city gazetteer backed by a memory-mapped binary index built from a GeoNames
+ * cities file (e.g. cities15000.txt). Names are stored sorted, with coordinates, population
+ * and country code in parallel primitive sections, so a lookup is a binary search over the
+ * mapped file with no per-entry objects on the heap. Duplicate names are ordered by
+ * population, so the most populous city wins.
+ *
+ * Not a Spring bean on purpose: lookups take microseconds and should not go through the
+ * service aspects.
+ */
+public class GazetteerIndex {
+
+    private static final int MAGIC = 0x47415A31; // "GAZ1"
+    private static final int HEADER_BYTES = 12;
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+
+    // GeoNames main table columns
+    private static final int COL_NAME = 1;
+    private static final int COL_ASCII_NAME = 2;
+    private static final int COL_LAT = 4;
+    private static final int COL_LNG = 5;
+    private static final int COL_COUNTRY = 8;
+    private static final int COL_POPULATION = 14;
+
+    private final ByteBuffer buffer;
+    private final int count;
+    private final int offsetsStart;
+    private final int latStart;
+    private final int lngStart;
+    private final int populationStart;
+    private final int countryStart;
+    private final int namesStart;
+
+    private GazetteerIndex(ByteBuffer buffer) {
+        if (buffer.getInt(0) != MAGIC) {
+            throw new IllegalStateException("Not a gazetteer index file");
+        }
+        this.buffer = buffer;
+        this.count = buffer.getInt(4);
+        this.offsetsStart = HEADER_BYTES;
+        this.latStart = offsetsStart + (count + 1) * Integer.BYTES;
+        this.lngStart = latStart + count * Float.BYTES;
+        this.populationStart = lngStart + count * Float.BYTES;
+        this.countryStart = populationStart + count * Integer.BYTES;
+        this.namesStart = countryStart + count * Character.BYTES;
+    }
+
+    /**
+     * Maps the index file, rebuilding it first when it is missing or older than the source file
+     */
+    public static GazetteerIndex open(Path sourceFile, Path indexFile) throws IOException {
+        if (!Files.exists(indexFile)
+                || (Files.exists(sourceFile)
+                    && Files.getLastModifiedTime(indexFile).compareTo(Files.getLastModifiedTime(sourceFile)) < 0)) {
+            build(sourceFile, indexFile);
+        }
+        try (FileChannel channel = FileChannel.open(indexFile, StandardOpenOption.READ)) {
+            MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            return new GazetteerIndex(mapped);
+        }
+    }
+
+    public int size() {
+        return count;
+    }
+
+    /**
+     * Looks up a city by name; returns null when the gazetteer does not know it
+     */
+    public Match lookup(String city) {
+        byte[] key = normalize(city).getBytes(StandardCharsets.UTF_8);
+        if (key.length == 0) {
+            return null;
+        }
+
+        // Lower bound: first entry whose name is >= key, i.e. the most populous exact match
+        int low = 0;
+        int high = count;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (compareName(mid, key) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        if (low == count || compareName(low, key) != 0) {
+            return null;
+        }
+        return new Match(nameAt(low),
+                buffer.getFloat(latStart + low * Float.BYTES),
+                buffer.getFloat(lngStart + low * Float.BYTES),
+                buffer.getInt(populationStart + low * Integer.BYTES),
+                countryAt(low));
+    }
+
+    private int compareName(int index, byte[] key) {
+        int start = namesStart + buffer.getInt(offsetsStart + index * Integer.BYTES);
+        int end = namesStart + buffer.getInt(offsetsStart + (index + 1) * Integer.BYTES);
+        int length = end - start;
+        int shared = Math.min(length, key.length);
+        for (int i = 0; i < shared; i++) {
+            int diff = (buffer.get(start + i) & 0xFF) - (key[i] & 0xFF);
+            if (diff != 0) {
+                return diff;
+            }
+        }
+        return length - key.length;
+    }
+
+    private String nameAt(int index) {
+        int start = buffer.getInt(offsetsStart + index * Integer.BYTES);
+        int end = buffer.getInt(offsetsStart + (index + 1) * Integer.BYTES);
+        byte[] bytes = new byte[end - start];
+        buffer.get(namesStart + start, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private String countryAt(int index) {
+        char packed = buffer.getChar(countryStart + index * Character.BYTES);
+        return packed == 0 ? null : new String(new char[] { (char) (packed >>> 8), (char) (packed & 0xFF) });
+    }
+
+    /**
+     * Lower-cases, collapses whitespace and strips accents so "São  Paulo" matches "sao paulo"
+     */
+    static String normalize(String city) {
+        if (city == null) {
+            return "";
+        }
+        String decomposed = Normalizer.normalize(city.trim(), Normalizer.Form.NFD);
+        return DIACRITICS.matcher(decomposed).replaceAll("")
+                .replaceAll("\\s+", " ")
+                .toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Converts a GeoNames tab-separated cities file into the binary index format
+     */
+    static void build(Path sourceFile, Path indexFile) throws IOException {
+        List<Entry> entries = new ArrayList<>();
+        try (BufferedReader reader = Files.newBufferedReader(sourceFile, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                String[] columns = line.split("\t", -1);
+                if (columns.length <= COL_POPULATION) {
+                    continue;
+                }
+                try {
+                    float lat = Float.parseFloat(columns[COL_LAT]);
+                    float lng = Float.parseFloat(columns[COL_LNG]);
+                    long population = columns[COL_POPULATION].isEmpty() ? 0 : Long.parseLong(columns[COL_POPULATION]);
+                    int clampedPopulation = (int) Math.min(population, Integer.MAX_VALUE);
+                    char country = packCountry(columns[COL_COUNTRY]);
+
+                    String name = normalize(columns[COL_NAME]);
+                    String asciiName = normalize(columns[COL_ASCII_NAME]);
+                    entries.add(new Entry(name.getBytes(StandardCharsets.UTF_8), lat, lng, clampedPopulation, country));
+                    if (!asciiName.isEmpty() && !asciiName.equals(name)) {
+                        entries.add(new Entry(asciiName.getBytes(StandardCharsets.UTF_8), lat, lng, clampedPopulation, country));
+                    }
+                } catch (NumberFormatException e) {
+                    // Skip malformed rows
+                }
+            }
+        }
+
+        entries.sort(Comparator.<Entry, byte[]>comparing(Entry::name, Arrays::compareUnsigned)
+                .thenComparing(Comparator.comparingInt(Entry::population).reversed()));
+
+        Path tempFile = Files.createTempFile(indexFile.toAbsolutePath().getParent(), "gazetteer", ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tempFile)))) {
+            int nameBytes = entries.stream().mapToInt(entry -> entry.name().length).sum();
+            out.writeInt(MAGIC);
+            out.writeInt(entries.size());
+            out.writeInt(nameBytes);
+
+            int offset = 0;
+            for (Entry entry : entries) {
+                out.writeInt(offset);
+                offset += entry.name().length;
+            }
+            out.writeInt(offset);
+            for (Entry entry : entries) out.writeFloat(entry.lat());
+            for (Entry entry : entries) out.writeFloat(entry.lng());
+            for (Entry entry : entries) out.writeInt(entry.population());
+            for (Entry entry : entries) out.writeChar(entry.country());
+            for (Entry entry : entries) out.write(entry.name());
+        }
+        Files.move(tempFile, indexFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private static char packCountry(String code) {
+        if (code == null || code.length() != 2) {
+            return 0;
+        }
+        return (char) ((code.charAt(0) << 8) | (code.charAt(1) & 0xFF));
+    }
+
+    private record Entry(byte[] name, float lat, float lng, int population, char country) {}
+
+    public record Match(String name, double lat, double lng, int population, String countryCode) {}
+}
@@ -0,0 +1,118 @@
+package com.travelplanner.backend.service;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Function;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.Ticker;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.travelplanner.backend.dto.GeocodeResult;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import reactor.core.publisher.Mono;
+
+/**
+ * Size-bounded cache of geocoding results keyed on the normalized city name. Hits live for
+ * a long time, misses and upstream failures only briefly. Concurrent lookups for the same
+ * city share a single upstream request.
+ */
+@Component
+public class GeocodeCache {
+
+    private final AsyncCache<String, GeocodeResult> cache;
+
+    @Autowired
+    public GeocodeCache(MeterRegistry meterRegistry,
+            @Value("${app.geocoding-cache.hit-ttl:30d}") Duration hitTtl,
+            @Value("${app.geocoding-cache.miss-ttl:1h}") Duration missTtl,
+            @Value("${app.geocoding-cache.error-ttl:1m}") Duration errorTtl,
+            @Value("${app.geocoding-cache.max-size:5000}") long maxSize) {
+        this(meterRegistry, hitTtl, missTtl, errorTtl, maxSize, Ticker.systemTicker());
+    }
+
+    GeocodeCache(MeterRegistry meterRegistry, Duration hitTtl, Duration missTtl, Duration errorTtl, long maxSize,
+            Ticker ticker) {
+        this.cache = Caffeine.newBuilder()
+                .expireAfter(new ResultExpiry(hitTtl, missTtl, errorTtl))
+                .ticker(ticker)
+                .maximumSize(maxSize)
+                .recordStats()
+                .buildAsync();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache.synchronous(), "geocoding");
+    }
+
+    /**
+     * Returns the cached result for the city, loading it with {@code loader} on a miss.
+     * Cancelling the returned Mono (e.g. on a deadline) does not cancel the shared load.
+     */
+    public Mono<GeocodeResult> get(String city, Function<String, Mono<GeocodeResult>> loader) {
+        return Mono.fromFuture(cache.get(normalize(city), (key, executor) -> loader.apply(key).toFuture()), true);
+    }
+
+    public void put(String city, GeocodeResult result) {
+        cache.synchronous().put(normalize(city), result);
+    }
+
+    public long invalidateAll() {
+        long size = cache.synchronous().estimatedSize();
+        cache.synchronous().invalidateAll();
+        return size;
+    }
+
+    public boolean invalidate(String city) {
+        return cache.synchronous().asMap().remove(normalize(city)) != null;
+    }
+
+    public Map<String, Object> getStats() {
+        CacheStats stats = cache.synchronous().stats();
+        return Map.of(
+            "size", cache.synchronous().estimatedSize(),
+            "hitCount", stats.hitCount(),
+            "missCount", stats.missCount(),
+            "hitRate", stats.hitRate(),
+            "evictionCount", stats.evictionCount()
+        );
+    }
+
+    static String normalize(String city) {
+        return city == null ? "" : city.trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+    }
+
+    private static final class ResultExpiry implements Expiry<String, GeocodeResult> {
+
+        private final long hitNanos;
+        private final long missNanos;
+        private final long errorNanos;
+
+        ResultExpiry(Duration hitTtl, Duration missTtl, Duration errorTtl) {
+            this.hitNanos = hitTtl.toNanos();
+            this.missNanos = missTtl.toNanos();
+            this.errorNanos = errorTtl.toNanos();
+        }
+
+        @Override
+        public long expireAfterCreate(String key, GeocodeResult result, long currentTime) {
+            if (result.isFound()) return hitNanos;
+            return result.isUnavailable() ? errorNanos : missNanos;
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, GeocodeResult result, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, result, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, GeocodeResult result, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
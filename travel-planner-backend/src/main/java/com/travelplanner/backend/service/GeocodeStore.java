@@ -0,0 +1,97 @@
+package com.travelplanner.backend.service;
+
+import java.util.List;
+import java.util.Optional;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.travelplanner.backend.Entities.GeocodedLocation;
+import com.travelplanner.backend.dto.GeocodeResult;
+import com.travelplanner.backend.repository.GeocodedLocationRepository;
+
+/**
+ * Database-backed store behind the geocoding cache. The most used locations are loaded into
+ * memory at startup and new resolutions are written back off the request path.
+ */
+@Service
+public class GeocodeStore {
+
+    private static final Logger log = LoggerFactory.getLogger(GeocodeStore.class);
+
+    private final GeocodedLocationRepository geocodedLocationRepository;
+    private final GeocodeCache geocodeCache;
+
+    @Value("${app.geocoding-store.warm-load-size:2000}")
+    private int warmLoadSize;
+
+    public GeocodeStore(GeocodedLocationRepository geocodedLocationRepository, GeocodeCache geocodeCache) {
+        this.geocodedLocationRepository = geocodedLocationRepository;
+        this.geocodeCache = geocodeCache;
+    }
+
+    /**
+     * Loads the hottest stored locations into the in-memory cache once the application is up
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmLoad() {
+        try {
+            List<GeocodedLocation> locations = geocodedLocationRepository
+                    .findAllByOrderByHitCountDescUpdatedAtDesc(PageRequest.of(0, warmLoadSize));
+            locations.forEach(location -> geocodeCache.put(location.getName(), toResult(location)));
+            log.info("Warm-loaded {} geocoded locations into the cache", locations.size());
+        } catch (Exception e) {
+            log.warn("Could not warm-load geocoded locations: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Looks up a previously resolved location by its normalized name
+     */
+    public Optional<GeocodeResult> find(String normalizedCity) {
+        return geocodedLocationRepository.findById(normalizedCity).map(this::toResult);
+    }
+
+    /**
+     * Persists a new resolution; only found locations are stored
+     */
+    @Async("geocodeStoreExecutor")
+    public void save(String normalizedCity, GeocodeResult result) {
+        if (!result.isFound()) {
+            return;
+        }
+        try {
+            GeocodedLocation location = geocodedLocationRepository.findById(normalizedCity)
+                    .orElseGet(() -> new GeocodedLocation(normalizedCity, null, null, null, null, null));
+            location.setLatitude(result.getLat());
+            location.setLongitude(result.getLng());
+            location.setDisplayName(result.getDisplayName());
+            location.setCountry(result.getCountry());
+            location.setType(result.getType());
+            geocodedLocationRepository.save(location);
+        } catch (Exception e) {
+            log.warn("Could not store geocoded location {}: {}", normalizedCity, e.getMessage());
+        }
+    }
+
+    /**
+     * Counts a lookup served from the store so it is preferred by the next warm-load
+     */
+    @Async("geocodeStoreExecutor")
+    @Transactional
+    public void recordHit(String normalizedCity) {
+        geocodedLocationRepository.incrementHitCount(normalizedCity);
+    }
+
+    private GeocodeResult toResult(GeocodedLocation location) {
+        return GeocodeResult.found(location.getLatitude(), location.getLongitude(),
+                location.getDisplayName(), location.getCountry(), location.getType());
+    }
+}
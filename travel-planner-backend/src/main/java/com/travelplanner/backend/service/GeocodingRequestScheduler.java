@@ -0,0 +1,193 @@
+package com.travelplanner.backend.service;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.travelplanner.backend.dto.GeocodeResult;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import reactor.core.publisher.Mono;
+
+/**
+ * Outbound scheduler for Nominatim lookups. A token bucket keeps us within the usage policy
+ * (about one request per second), lookups wait in a FIFO queue where duplicate city names
+ * share one entry, and anything that waits longer than the configured maximum fails with a
+ * {@link TimeoutException} so the caller can fall back.
+ */
+@Component
+public class GeocodingRequestScheduler {
+
+    private static final Logger log = LoggerFactory.getLogger(GeocodingRequestScheduler.class);
+
+    private final double ratePerSecond;
+    private final double burst;
+    private final int maxQueueSize;
+    private final long maxWaitNanos;
+
+    private final Map<String, Pending> queue = new LinkedHashMap<>();
+    private final ScheduledExecutorService dispatcher;
+
+    private double tokens;
+    private long lastRefill;
+    private boolean drainScheduled;
+
+    private final Timer waitTimer;
+    private final Counter coalesced;
+    private final Counter rejected;
+    private final Counter timedOut;
+
+    public GeocodingRequestScheduler(MeterRegistry meterRegistry,
+            @Value("${app.geocoding.rate-per-second:1}") double ratePerSecond,
+            @Value("${app.geocoding.burst:1}") int burst,
+            @Value("${app.geocoding.max-queue-size:500}") int maxQueueSize,
+            @Value("${app.geocoding.max-queue-wait:5s}") Duration maxQueueWait) {
+        this.ratePerSecond = ratePerSecond;
+        this.burst = Math.max(1, burst);
+        this.maxQueueSize = maxQueueSize;
+        this.maxWaitNanos = maxQueueWait.toNanos();
+        this.tokens = this.burst;
+        this.lastRefill = System.nanoTime();
+        this.dispatcher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "geocoding-scheduler");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        Gauge.builder("geocoding.scheduler.queue.size", this, GeocodingRequestScheduler::getQueueLength)
+                .description("Geocoding lookups waiting for a rate-limit token")
+                .register(meterRegistry);
+        this.waitTimer = Timer.builder("geocoding.scheduler.wait")
+                .description("Time geocoding lookups spent queued before being sent")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.coalesced = Counter.builder("geocoding.scheduler.coalesced")
+                .description("Lookups that joined an identical queued lookup")
+                .register(meterRegistry);
+        this.rejected = Counter.builder("geocoding.scheduler.dropped")
+                .tag("reason", "queue-full")
+                .register(meterRegistry);
+        this.timedOut = Counter.builder("geocoding.scheduler.dropped")
+                .tag("reason", "max-wait")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Queues a lookup for {@code key}; the request is only subscribed once a token is available.
+     * A lookup for a key that is already queued shares the queued entry.
+     */
+    public Mono<GeocodeResult> submit(String key, Supplier<Mono<GeocodeResult>> request) {
+        return Mono.defer(() -> Mono.fromFuture(enqueue(key, request), true));
+    }
+
+    public synchronized int getQueueLength() {
+        return queue.size();
+    }
+
+    private synchronized CompletableFuture<GeocodeResult> enqueue(String key, Supplier<Mono<GeocodeResult>> request) {
+        Pending existing = queue.get(key);
+        if (existing != null) {
+            coalesced.increment();
+            return existing.result;
+        }
+        if (queue.size() >= maxQueueSize) {
+            rejected.increment();
+            return CompletableFuture.failedFuture(
+                    new RejectedExecutionException("Geocoding queue is full (" + maxQueueSize + " pending)"));
+        }
+
+        Pending pending = new Pending(key, request, System.nanoTime());
+        queue.put(key, pending);
+        drain();
+        if (queue.containsKey(key)) {
+            dispatcher.schedule(() -> expire(pending), maxWaitNanos, TimeUnit.NANOSECONDS);
+        }
+        return pending.result;
+    }
+
+    private synchronized void expire(Pending pending) {
+        if (queue.remove(pending.key, pending)) {
+            timedOut.increment();
+            pending.result.completeExceptionally(new TimeoutException(
+                    "Geocoding lookup for '" + pending.key + "' waited longer than the maximum queue wait"));
+        }
+    }
+
+    /**
+     * Sends as many queued lookups as there are tokens, then schedules itself for the next token
+     */
+    private synchronized void drain() {
+        refill();
+        Iterator<Pending> iterator = queue.values().iterator();
+        while (iterator.hasNext() && tokens >= 1) {
+            Pending pending = iterator.next();
+            iterator.remove();
+            tokens -= 1;
+            dispatch(pending);
+        }
+        if (!queue.isEmpty() && !drainScheduled) {
+            long delayNanos = (long) ((1 - tokens) / ratePerSecond * 1_000_000_000L);
+            drainScheduled = true;
+            dispatcher.schedule(() -> {
+                synchronized (this) {
+                    drainScheduled = false;
+                }
+                drain();
+            }, Math.max(delayNanos, 1), TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private void refill() {
+        long now = System.nanoTime();
+        tokens = Math.min(burst, tokens + (now - lastRefill) / 1_000_000_000.0 * ratePerSecond);
+        lastRefill = now;
+    }
+
+    private void dispatch(Pending pending) {
+        waitTimer.record(System.nanoTime() - pending.enqueuedAt, TimeUnit.NANOSECONDS);
+        try {
+            pending.request.get().subscribe(
+                    pending.result::complete,
+                    pending.result::completeExceptionally,
+                    () -> pending.result.complete(GeocodeResult.notFound()));
+        } catch (Exception e) {
+            log.warn("Geocoding lookup for {} could not be started: {}", pending.key, e.getMessage());
+            pending.result.completeExceptionally(e);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        dispatcher.shutdownNow();
+    }
+
+    private static final class Pending {
+        final String key;
+        final Supplier<Mono<GeocodeResult>> request;
+        final long enqueuedAt;
+        final CompletableFuture<GeocodeResult> result = new CompletableFuture<>();
+
+        Pending(String key, Supplier<Mono<GeocodeResult>> request, long enqueuedAt) {
+            this.key = key;
+            this.request = request;
+            this.enqueuedAt = enqueuedAt;
+        }
+    }
+}
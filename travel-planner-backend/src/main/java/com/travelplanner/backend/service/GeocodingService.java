@@ -1,27 +1,168 @@
 package com.travelplanner.backend.service;
 
+import jakarta.annotation.PostConstruct;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import com.travelplanner.backend.dto.GeocodeBatchResultDTO;
+import com.travelplanner.backend.dto.GeocodeResult;
+import com.travelplanner.backend.dto.NominatimPlace;
+
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.reactor.circuitbreaker.operator.CircuitBreakerOperator;
 
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 
 @Service
 public class GeocodingService {
     
+    private static final int DEFAULT_BATCH_CONCURRENCY = 4;
+    
+    private static final Logger log = LoggerFactory.getLogger(GeocodingService.class);
+    
     private final WebClient webClient;
+    private final GeocodeCache geocodeCache;
+    private final GeocodeStore geocodeStore;
+    private final GeocodingRequestScheduler geocodingRequestScheduler;
+    private final CircuitBreaker nominatimBreaker;
+    
+    @Value("${app.geocoding.fetch-timeout:10s}")
+    private Duration fetchTimeout;
+    
+    @Value("${app.gazetteer.file:}")
+    private String gazetteerFile;
+    
+    @Value("${app.gazetteer.index-file:}")
+    private String gazetteerIndexFile;
+    
+    @Value("${app.gazetteer.offline:false}")
+    private boolean gazetteerOffline;
+    
+    private GazetteerIndex gazetteer;
+    
+    private final CityNameMatcher cityNameMatcher = new CityNameMatcher(10_000);
 
-    public GeocodingService(WebClient webClient) {
+    public GeocodingService(@Qualifier("nominatimWebClient") WebClient webClient, GeocodeCache geocodeCache,
+                            GeocodeStore geocodeStore, GeocodingRequestScheduler geocodingRequestScheduler,
+                            CircuitBreakerRegistry circuitBreakerRegistry) {
         this.webClient = webClient;
+        this.geocodeCache = geocodeCache;
+        this.geocodeStore = geocodeStore;
+        this.geocodingRequestScheduler = geocodingRequestScheduler;
+        this.nominatimBreaker = circuitBreakerRegistry.circuitBreaker("nominatim");
+    }
+
+    /**
+     * Maps the offline gazetteer when one is configured; geocoding works without it
+     */
+    @PostConstruct
+    void loadGazetteer() {
+        if (gazetteerFile == null || gazetteerFile.isBlank()) {
+            return;
+        }
+        Path source = Path.of(gazetteerFile);
+        Path index = gazetteerIndexFile == null || gazetteerIndexFile.isBlank()
+                ? Path.of(gazetteerFile + ".idx")
+                : Path.of(gazetteerIndexFile);
+        try {
+            gazetteer = GazetteerIndex.open(source, index);
+            log.info("Loaded offline gazetteer with {} names from {}", gazetteer.size(), index);
+        } catch (Exception e) {
+            log.warn("Could not load offline gazetteer from {}: {}", source, e.getMessage());
+        }
     }
 
     /**
      * Completely dynamic geocoding - gets coordinates for ANY city worldwide
      */
     public Mono<Map<String, Double>> getCoordinates(String city) {
-        return webClient.get()
+        return getCoordinates(city, RequestDeadline.none());
+    }
+
+    /**
+     * Geocodes within the remaining request budget, falling back when the budget runs out
+     */
+    public Mono<Map<String, Double>> getCoordinates(String city, RequestDeadline deadline) {
+        return resolveCoordinates(city, deadline)
+                .map(location -> Map.of("lat", location.getLat(), "lng", location.getLng()));
+    }
+
+    /**
+     * Geocodes within the remaining request budget and reports whether the coordinates were
+     * really resolved (RESOLVED) or come from a fallback (FALLBACK), e.g. for a city Nominatim
+     * does not know. Only upstream failures and timeouts mark the stage degraded.
+     */
+    public Mono<GeocodeBatchResultDTO> resolveCoordinates(String city, RequestDeadline deadline) {
+        return deadline.bound(geocodeCache.get(city, this::loadGeocode))
+                .map(result -> {
+                    if (result.isFound()) {
+                        return GeocodeBatchResultDTO.resolved(city, result);
+                    }
+                    if (result.isUnavailable()) {
+                        deadline.markDegraded();
+                    }
+                    return GeocodeBatchResultDTO.fallback(city, getWorldwideFallback(city), result.getError());
+                })
+                .onErrorResume(error -> {
+                    deadline.markDegraded();
+                    return Mono.just(GeocodeBatchResultDTO.fallback(city, getWorldwideFallback(city),
+                            "Geocoding timed out"));
+                });
+    }
+
+    /**
+     * Cache loader: serves known cities from the geocode store and only calls Nominatim for
+     * new ones, writing fresh resolutions back asynchronously
+     */
+    private Mono<GeocodeResult> loadGeocode(String normalizedCity) {
+        GeocodeResult offline = lookupGazetteer(normalizedCity);
+        if (offline != null) {
+            return Mono.just(offline);
+        }
+        return Mono.fromCallable(() -> geocodeStore.find(normalizedCity))
+                .subscribeOn(Schedulers.boundedElastic())
+                .onErrorReturn(Optional.empty())
+                .flatMap(stored -> {
+                    if (stored.isPresent()) {
+                        geocodeStore.recordHit(normalizedCity);
+                        return Mono.just(stored.get());
+                    }
+                    if (gazetteerOffline) {
+                        return Mono.just(GeocodeResult.notFound());
+                    }
+                    return fetchGeocode(normalizedCity)
+                            .doOnNext(result -> geocodeStore.save(normalizedCity, result));
+                });
+    }
+
+    /**
+     * Looks the city up on Nominatim through the rate-limited scheduler; failures, including
+     * lookups that waited too long in the queue, become an "unavailable" result so they are
+     * cached briefly instead of being retried by every request. While the Nominatim circuit is
+     * open the lookup is not queued at all.
+     */
+    private Mono<GeocodeResult> fetchGeocode(String city) {
+        if (isOpen(nominatimBreaker)) {
+            log.debug("Nominatim circuit open, skipping lookup for {}", city);
+            return Mono.just(GeocodeResult.unavailable());
+        }
+        return geocodingRequestScheduler.submit(city, () -> webClient.get()
                 .uri(uriBuilder -> uriBuilder
                         .scheme("https")
                         .host("nominatim.openstreetmap.org")
@@ -33,150 +174,107 @@ public class GeocodingService {
                         .queryParam("countrycodes", "")
                         .build())
                 .retrieve()
-                .bodyToMono(List.class)
-                .map(response -> {
-                    // Explicitly cast and handle the response
-                    @SuppressWarnings("unchecked")
-                    List<Object> responseList = (List<Object>) response;
-                    return extractBestMatchCoordinates(city, responseList);
-                })
-                .onErrorReturn(getWorldwideFallback(city));
+                .bodyToFlux(NominatimPlace.class)
+                .collectList()
+                .map(places -> extractBestMatch(city, places))
+                .timeout(fetchTimeout)
+                .transformDeferred(CircuitBreakerOperator.of(nominatimBreaker)))
+                .onErrorResume(error -> {
+                    log.warn("Geocoding lookup failed for {}: {}", city, error.getMessage());
+                    return Mono.just(GeocodeResult.unavailable());
+                });
+    }
+
+    private static boolean isOpen(CircuitBreaker breaker) {
+        CircuitBreaker.State state = breaker.getState();
+        return state == CircuitBreaker.State.OPEN || state == CircuitBreaker.State.FORCED_OPEN;
     }
 
     /**
-     * Extract the best matching coordinates from multiple results
+     * Extract the best matching location from multiple results
      */
-    @SuppressWarnings("unchecked")
-    private Map<String, Double> extractBestMatchCoordinates(String requestedCity, List<Object> response) {
-        if (response == null || response.isEmpty()) {
-            return getWorldwideFallback(requestedCity);
+    private GeocodeResult extractBestMatch(String requestedCity, List<NominatimPlace> places) {
+        if (places.isEmpty()) {
+            return GeocodeResult.notFound();
         }
 
-        // Convert to list of location data
-        List<Map<String, Object>> locations = response.stream()
-                .map(location -> (Map<String, Object>) location)
-                .toList();
-
-        // Try to find the best match
-        Map<String, Object> bestMatch = findBestCityMatch(requestedCity, locations);
+        // Try to find the best match, otherwise use the first result
+        NominatimPlace bestMatch = findBestCityMatch(requestedCity, places);
+        NominatimPlace place = bestMatch != null ? bestMatch : places.get(0);
         
-        if (bestMatch != null) {
-            double lat = Double.parseDouble(bestMatch.get("lat").toString());
-            double lon = Double.parseDouble(bestMatch.get("lon").toString());
-            return Map.of("lat", lat, "lng", lon);
-        }
-
-        // If no good match, use the first result
-        Map<String, Object> firstLocation = locations.get(0);
-        double lat = Double.parseDouble(firstLocation.get("lat").toString());
-        double lon = Double.parseDouble(firstLocation.get("lon").toString());
-        return Map.of("lat", lat, "lng", lon);
+        return GeocodeResult.found(place.lat(), place.lon(), place.displayName(),
+                place.address() != null ? place.address().country() : "Unknown",
+                place.type());
     }
 
     /**
-     * Find the best matching city from multiple results
+     * Find the best matching city from multiple results: every candidate is scored on its
+     * address components and the leading part of its display name, and the highest score
+     * wins (Nominatim's own ordering breaks ties). Returns null when nothing scores well enough.
      */
-    @SuppressWarnings("unchecked")
-    private Map<String, Object> findBestCityMatch(String requestedCity, List<Map<String, Object>> locations) {
-        String requestedLower = requestedCity.toLowerCase().trim();
-        
-        for (Map<String, Object> location : locations) {
-            try {
-                Map<String, Object> address = (Map<String, Object>) location.get("address");
-                if (address == null) continue;
-
-                // Check various address components
-                String city = getAddressComponent(address, "city");
-                String town = getAddressComponent(address, "town");
-                String village = getAddressComponent(address, "village");
-                String municipality = getAddressComponent(address, "municipality");
-                String county = getAddressComponent(address, "county");
-                String state = getAddressComponent(address, "state");
-                
-                // Get the most specific place name
-                String actualPlace = city != null ? city :
-                                   town != null ? town :
-                                   village != null ? village :
-                                   municipality != null ? municipality :
-                                   county != null ? county : state;
-
-                if (actualPlace != null) {
-                    String actualLower = actualPlace.toLowerCase();
-                    
-                    // Exact match (highest priority)
-                    if (actualLower.equals(requestedLower)) {
-                        return location;
-                    }
-                    
-                    // Contains match (good match)
-                    if (actualLower.contains(requestedLower) || requestedLower.contains(actualLower)) {
-                        return location;
-                    }
-                    
-                    // Similar words (fallback match)
-                    if (hasSimilarWords(actualLower, requestedLower)) {
-                        return location;
-                    }
-                }
-
-                // Also check the display name
-                String displayName = (String) location.get("display_name");
-                if (displayName != null && displayName.toLowerCase().contains(requestedLower)) {
-                    return location;
-                }
+    private NominatimPlace findBestCityMatch(String requestedCity, List<NominatimPlace> places) {
+        return cityNameMatcher.bestMatch(requestedCity, places, GeocodingService::candidateNames);
+    }
 
-            } catch (Exception e) {
-                // Continue to next location if this one fails
-                continue;
-            }
+    static List<String> candidateNames(NominatimPlace place) {
+        List<String> names = new ArrayList<>(7);
+        NominatimPlace.Address address = place.address();
+        if (address != null) {
+            addName(names, address.city());
+            addName(names, address.town());
+            addName(names, address.village());
+            addName(names, address.municipality());
+            addName(names, address.county());
+            addName(names, address.state());
         }
-        
-        return null; // No good match found
+        String displayName = place.displayName();
+        if (displayName != null) {
+            int comma = displayName.indexOf(',');
+            names.add(comma > 0 ? displayName.substring(0, comma) : displayName);
+        }
+        return names;
     }
 
-    /**
-     * Get address component safely
-     */
-    private String getAddressComponent(Map<String, Object> address, String key) {
-        try {
-            return (String) address.get(key);
-        } catch (Exception e) {
-            return null;
+    private static void addName(List<String> names, String name) {
+        if (name != null) {
+            names.add(name);
         }
     }
 
-    /**
-     * Check if two strings have similar words
-     */
-    private boolean hasSimilarWords(String str1, String str2) {
-        String[] words1 = str1.split("\\s+");
-        String[] words2 = str2.split("\\s+");
-        
-        for (String word1 : words1) {
-            for (String word2 : words2) {
-                if (word1.length() > 3 && word2.length() > 3 && 
-                    (word1.contains(word2) || word2.contains(word1))) {
-                    return true;
-                }
-            }
+    private GeocodeResult lookupGazetteer(String city) {
+        if (gazetteer == null) {
+            return null;
+        }
+        GazetteerIndex.Match match = gazetteer.lookup(city);
+        if (match == null) {
+            return null;
         }
-        return false;
+        String displayName = match.countryCode() != null ? match.name() + ", " + match.countryCode() : match.name();
+        return GeocodeResult.found(match.lat(), match.lng(), displayName, match.countryCode(), "city");
     }
 
     /**
-     * Worldwide fallback - calculates approximate coordinates based on city name hash
+     * Worldwide fallback - tries the gazetteer on the leading part of the name (e.g. "Paris" in
+     * "Paris, Ile-de-France"), and only when that fails too derives consistent pseudo-coordinates
+     * from the city name hash
      */
     private Map<String, Double> getWorldwideFallback(String city) {
+        int comma = city.indexOf(',');
+        GeocodeResult offline = lookupGazetteer(comma > 0 ? city.substring(0, comma) : city);
+        if (offline != null) {
+            return Map.of("lat", offline.getLat(), "lng", offline.getLng());
+        }
+        
         // Use city name hash to generate pseudo-random but consistent coordinates
         int hash = city.toLowerCase().hashCode();
         
-        // Distribute across reasonable worldwide ranges
-        double lat = (hash % 130) - 65.0;  // -65 to +65 degrees latitude
-        double lon = (hash % 360) - 180.0; // -180 to +180 degrees longitude
+        // Distribute across reasonable worldwide ranges; floorMod keeps negative hashes in range
+        double lat = Math.floorMod(hash, 130) - 65.0;  // -65 to +65 degrees latitude
+        double lon = Math.floorMod(hash, 360) - 180.0; // -180 to +180 degrees longitude
         
         // Add some randomness but keep it consistent for same city
-        lat += (hash % 100) / 1000.0;
-        lon += ((hash / 100) % 100) / 1000.0;
+        lat += Math.floorMod(hash, 100) / 1000.0;
+        lon += Math.floorMod(hash / 100, 100) / 1000.0;
         
         return Map.of("lat", lat, "lng", lon);
     }
@@ -185,69 +283,62 @@ public class GeocodingService {
      * Batch geocoding for multiple cities
      */
     public Mono<List<Map<String, Object>>> getCoordinatesForMultipleCities(List<String> cities) {
-        List<Mono<Map<String, Object>>> monos = cities.stream()
-                .map(city -> getCoordinates(city)
-                        .map(coords -> {
-                            Map<String, Object> result = new HashMap<>();
-                            result.put("city", city);
-                            result.put("lat", coords.get("lat"));
-                            result.put("lng", coords.get("lng"));
-                            return result;
-                        })
-                )
-                .toList();
+        return getCoordinatesForMultipleCities(cities, DEFAULT_BATCH_CONCURRENCY, RequestDeadline.none());
+    }
 
-        return Mono.zip(monos, results -> {
-            List<Map<String, Object>> list = new java.util.ArrayList<>();
-            for (Object result : results) {
-                @SuppressWarnings("unchecked")
-                Map<String, Object> mapResult = (Map<String, Object>) result;
-                list.add(mapResult);
+    /**
+     * Batch geocoding with at most {@code concurrency} lookups in flight; results keep the input order
+     */
+    public Mono<List<Map<String, Object>>> getCoordinatesForMultipleCities(List<String> cities, int concurrency,
+            RequestDeadline deadline) {
+        return geocodeCities(cities, concurrency, deadline)
+                .map(location -> {
+                    Map<String, Object> result = new HashMap<>();
+                    result.put("city", location.getCity());
+                    result.put("lat", location.getLat());
+                    result.put("lng", location.getLng());
+                    result.put("status", location.getStatus());
+                    return result;
+                })
+                .collectList();
+    }
+
+    /**
+     * Streams one result per distinct city (first spelling wins, input order kept) with at most
+     * {@code concurrency} lookups in flight. A city that cannot be resolved yields a FALLBACK
+     * entry instead of failing the batch. Since Nominatim calls are rate-limited, keep
+     * concurrency low enough that a queued lookup does not exceed the scheduler's maximum wait.
+     */
+    public Flux<GeocodeBatchResultDTO> geocodeCities(List<String> cities, int concurrency, RequestDeadline deadline) {
+        Map<String, String> distinct = new LinkedHashMap<>();
+        for (String city : cities) {
+            if (city != null && !city.isBlank()) {
+                distinct.putIfAbsent(GeocodeCache.normalize(city), city.trim());
             }
-            return list;
-        });
+        }
+        return Flux.fromIterable(distinct.values())
+                .flatMapSequential(city -> resolveCoordinates(city, deadline.forStage("geocoding:" + city)),
+                        Math.max(1, concurrency));
     }
 
     /**
-     * Get coordinates with additional location info
+     * Get coordinates with additional location info, served from the same cached lookup
      */
     public Mono<Map<String, Object>> getCoordinatesWithDetails(String city) {
-        return webClient.get()
-                .uri(uriBuilder -> uriBuilder
-                        .scheme("https")
-                        .host("nominatim.openstreetmap.org")
-                        .path("/search")
-                        .queryParam("q", city)
-                        .queryParam("format", "json")
-                        .queryParam("limit", 1)
-                        .queryParam("addressdetails", 1)
-                        .build())
-                .retrieve()
-                .bodyToMono(List.class)
-                .map(response -> {
-                    @SuppressWarnings("unchecked")
-                    List<Object> responseList = (List<Object>) response;
-                    
-                    if (responseList != null && !responseList.isEmpty()) {
-                        Map<String, Object> location = (Map<String, Object>) responseList.get(0);
-                        Map<String, Object> address = (Map<String, Object>) location.get("address");
-                        
-                        Map<String, Object> result = new HashMap<>();
-                        result.put("city", city);
-                        result.put("lat", Double.parseDouble(location.get("lat").toString()));
-                        result.put("lng", Double.parseDouble(location.get("lon").toString()));
-                        result.put("displayName", location.get("display_name"));
-                        result.put("country", address != null ? address.get("country") : "Unknown");
-                        result.put("type", location.get("type"));
-                        return result;
+        return geocodeCache.get(city, this::loadGeocode)
+                .map(geocode -> {
+                    if (!geocode.isFound()) {
+                        return createErrorResult(city, geocode.getError());
                     }
                     
-                    Map<String, Object> errorResult = new HashMap<>();
-                    errorResult.put("city", city);
-                    errorResult.put("lat", 0.0);
-                    errorResult.put("lng", 0.0);
-                    errorResult.put("error", "Location not found");
-                    return errorResult;
+                    Map<String, Object> result = new HashMap<>();
+                    result.put("city", city);
+                    result.put("lat", geocode.getLat());
+                    result.put("lng", geocode.getLng());
+                    result.put("displayName", geocode.getDisplayName());
+                    result.put("country", geocode.getCountry());
+                    result.put("type", geocode.getType());
+                    return result;
                 })
                 .onErrorReturn(createErrorResult(city, "Geocoding service unavailable"));
     }
@@ -12,10 +12,12 @@ import org.springframework.ai.chat.messages.UserMessage;
 import org.springframework.ai.chat.model.ChatModel;
 import org.springframework.ai.chat.prompt.Prompt;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.travelplanner.backend.ai.PromptCachingChatModel;
 import com.travelplanner.backend.Entities.FamousPlace;
 import com.travelplanner.backend.dto.PlaceRecommendationResponse;
 import com.travelplanner.backend.repository.FamousPlaceRepository;
@@ -29,24 +31,42 @@ public class PlaceRecommendationService {
     private final FamousPlaceRepository famousPlaceRepository; 
     private final ChatModel chatModel;
     private final ObjectMapper objectMapper;
+    // Only the place writes run in a transaction, so no connection is held during the model call
+    private final TransactionTemplate transactionTemplate;
 
     public PlaceRecommendationService(FamousPlaceService famousPlaceService,
                                      FamousPlaceRepository famousPlaceRepository, 
                                      ChatModel chatModel, 
-                                     ObjectMapper objectMapper) {
+                                     ObjectMapper objectMapper,
+                                     PlatformTransactionManager transactionManager) {
         this.famousPlaceService = famousPlaceService;
         this.famousPlaceRepository = famousPlaceRepository; 
-        this.chatModel = chatModel;
+        this.chatModel = PromptCachingChatModel.forCallSite(chatModel, "place-recommendation",
+                this::isPlacesJson);
         this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
     }
 
-    @Transactional  
     public PlaceRecommendationResponse getAIRecommendedPlaces(
             String destinationCity, 
             List<String> userInterests, 
             int tripDuration, 
             double budget,
             String travelCompanions) {
+        return getAIRecommendedPlaces(destinationCity, userInterests, tripDuration, budget,
+                travelCompanions, RequestDeadline.none());
+    }
+
+    /**
+     * Place recommendation within the remaining request budget; falls back to top-rated places when it runs out
+     */
+    public PlaceRecommendationResponse getAIRecommendedPlaces(
+            String destinationCity, 
+            List<String> userInterests, 
+            int tripDuration, 
+            double budget,
+            String travelCompanions,
+            RequestDeadline deadline) {
         
         List<FamousPlace> cityPlaces = famousPlaceService.getPlacesByCity(destinationCity);
         
@@ -113,22 +133,22 @@ public class PlaceRecommendationService {
             UserMessage userMessage = new UserMessage(promptText);
             Prompt prompt = new Prompt(List.of(systemMessage, userMessage));
             
-            String rawResponse = chatModel.call(prompt).getResult().getOutput().getText();
+            String rawResponse = deadline.call(() -> chatModel.call(prompt).getResult().getOutput().getText());
             String aiResponse = extractContentFromOpenAIResponse(rawResponse);
             log.info("Place AI Raw Response: {}", rawResponse);
             log.info("Place AI Extracted Content: {}", aiResponse);
             
             //  Parse and save places dynamically
-            return parseAndSavePlaces(aiResponse, destinationCity);
+            return transactionTemplate.execute(status -> parseAndSavePlaces(aiResponse, destinationCity));
             
         } catch (Exception e) {
         	log.error("Place recommendation failed: {}", e.getMessage());
+        	deadline.markDegraded();
             return getFallbackRecommendation(destinationCity);
         }
     }
 
     // Parse AI response and create FamousPlace entries
-    @Transactional
     private PlaceRecommendationResponse parseAndSavePlaces(String aiResponse, String city) {
         PlaceRecommendationResponse response = new PlaceRecommendationResponse();
         
@@ -202,6 +222,17 @@ public class PlaceRecommendationService {
         return response;
     }
     
+    /**
+     * Whether an answer carries a parsable list of places, i.e. is worth caching
+     */
+    private boolean isPlacesJson(String response) {
+        try {
+            return objectMapper.readTree(extractJsonFromResponse(response)).path("recommendedPlaces").isArray();
+        } catch (Exception e) {
+            return false;
+        }
+    }
+    
     private String extractJsonFromResponse(String response) {
         if (response == null || response.trim().isEmpty()) {
             return "{}";
@@ -267,7 +298,6 @@ public class PlaceRecommendationService {
     }
 
     // Create or update FamousPlace from AI data
-    @Transactional
     private FamousPlace createOrUpdatePlace(Map<?, ?> placeData, String city) {
         try {
             String placeName = placeData.get("name").toString();
@@ -0,0 +1,104 @@
+package com.travelplanner.backend.service;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Optional;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.travelplanner.backend.Entities.LlmPromptCacheEntry;
+import com.travelplanner.backend.config.LlmProperties;
+import com.travelplanner.backend.repository.LlmPromptCacheRepository;
+
+/**
+ * Database-backed store behind the prompt cache. Expired rows are purged and the most used
+ * live ones loaded into memory at startup; new responses are written back off the request path.
+ */
+@Service
+public class PromptCacheStore {
+
+    private static final Logger log = LoggerFactory.getLogger(PromptCacheStore.class);
+
+    private final LlmPromptCacheRepository llmPromptCacheRepository;
+    private final PromptResponseCache promptResponseCache;
+    private final LlmProperties llmProperties;
+
+    public PromptCacheStore(LlmPromptCacheRepository llmPromptCacheRepository,
+                            PromptResponseCache promptResponseCache, LlmProperties llmProperties) {
+        this.llmPromptCacheRepository = llmPromptCacheRepository;
+        this.promptResponseCache = promptResponseCache;
+        this.llmProperties = llmProperties;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmLoad() {
+        try {
+            LocalDateTime now = LocalDateTime.now();
+            int purged = llmPromptCacheRepository.deleteExpired(now);
+            List<LlmPromptCacheEntry> entries = llmPromptCacheRepository.findAllByExpiresAtAfterOrderByHitCountDesc(
+                    now, PageRequest.of(0, llmProperties.getCache().getWarmLoadSize()));
+            entries.forEach(entry -> promptResponseCache.put(entry.getPromptHash(), toEntry(entry)));
+            log.info("Warm-loaded {} cached model responses ({} expired removed)", entries.size(), purged);
+        } catch (Exception e) {
+            log.warn("Could not warm-load cached model responses: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Looks up a live stored response by prompt hash
+     */
+    public Optional<PromptResponseCache.Entry> find(String promptHash) {
+        try {
+            return llmPromptCacheRepository.findByPromptHashAndExpiresAtAfter(promptHash, LocalDateTime.now())
+                    .map(this::toEntry);
+        } catch (Exception e) {
+            log.warn("Could not read cached model response: {}", e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    @Async("promptCacheStoreExecutor")
+    public void save(String promptHash, PromptResponseCache.Entry entry) {
+        try {
+            llmPromptCacheRepository.save(new LlmPromptCacheEntry(promptHash, entry.callSite(), entry.model(),
+                    entry.response(), entry.latencyMillis(),
+                    LocalDateTime.ofInstant(entry.expiresAt(), ZoneId.systemDefault())));
+        } catch (Exception e) {
+            log.warn("Could not store cached model response: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Counts a hit so the entry is preferred by the next warm-load
+     */
+    @Async("promptCacheStoreExecutor")
+    @Transactional
+    public void recordHit(String promptHash) {
+        llmPromptCacheRepository.incrementHitCount(promptHash);
+    }
+
+    /**
+     * Drops all stored responses, in memory and in the table
+     */
+    @Transactional
+    public long invalidateAll() {
+        long stored = llmPromptCacheRepository.count();
+        llmPromptCacheRepository.deleteAllInBatch();
+        promptResponseCache.invalidateAll();
+        return stored;
+    }
+
+    private PromptResponseCache.Entry toEntry(LlmPromptCacheEntry entry) {
+        return new PromptResponseCache.Entry(entry.getCallSite(), entry.getModel(), entry.getResponse(),
+                entry.getLatencyMillis() != null ? entry.getLatencyMillis() : 0,
+                entry.getExpiresAt().atZone(ZoneId.systemDefault()).toInstant());
+    }
+}
@@ -0,0 +1,86 @@
+package com.travelplanner.backend.service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.travelplanner.backend.config.LlmProperties;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+/**
+ * In-memory side of the model prompt cache, keyed on the hash of the normalized prompt.
+ * Each entry expires at the time set when it was stored, so call sites can use different TTLs.
+ */
+@Component
+public class PromptResponseCache {
+
+    /**
+     * A cached model answer; latencyMillis is how long the original call took
+     */
+    public record Entry(String callSite, String model, String response, long latencyMillis, Instant expiresAt) {
+    }
+
+    private final Cache<String, Entry> cache;
+
+    public PromptResponseCache(MeterRegistry meterRegistry, LlmProperties llmProperties) {
+        this.cache = Caffeine.newBuilder()
+                .expireAfter(new EntryExpiry())
+                .maximumSize(llmProperties.getCache().getMaxSize())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "llm-prompts");
+    }
+
+    public Entry get(String promptHash) {
+        return cache.getIfPresent(promptHash);
+    }
+
+    public void put(String promptHash, Entry entry) {
+        if (entry.expiresAt().isAfter(Instant.now())) {
+            cache.put(promptHash, entry);
+        }
+    }
+
+    public long invalidateAll() {
+        long size = cache.estimatedSize();
+        cache.invalidateAll();
+        return size;
+    }
+
+    public Map<String, Object> getStats() {
+        CacheStats stats = cache.stats();
+        return Map.of(
+            "size", cache.estimatedSize(),
+            "hitCount", stats.hitCount(),
+            "missCount", stats.missCount(),
+            "hitRate", stats.hitRate(),
+            "evictionCount", stats.evictionCount()
+        );
+    }
+
+    private static final class EntryExpiry implements Expiry<String, Entry> {
+
+        @Override
+        public long expireAfterCreate(String key, Entry entry, long currentTime) {
+            return Math.max(0, Duration.between(Instant.now(), entry.expiresAt()).toNanos());
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, Entry entry, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, entry, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, Entry entry, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
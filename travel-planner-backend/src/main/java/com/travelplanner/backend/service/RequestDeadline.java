@@ -0,0 +1,113 @@
+package com.travelplanner.backend.service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.TimeoutException;
+
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Overall time budget for a request. Each stage asks for the remaining budget and,
+ * when it falls back, records itself as degraded so the response can report it.
+ */
+public final class RequestDeadline {
+
+    private final long deadlineNanos;
+    private final boolean bounded;
+    private final Set<String> degradedStages;
+    private final String stage;
+
+    private RequestDeadline(long deadlineNanos, boolean bounded, Set<String> degradedStages, String stage) {
+        this.deadlineNanos = deadlineNanos;
+        this.bounded = bounded;
+        this.degradedStages = degradedStages;
+        this.stage = stage;
+    }
+
+    public static RequestDeadline within(Duration budget) {
+        return new RequestDeadline(System.nanoTime() + budget.toNanos(), true,
+                Collections.synchronizedSet(new LinkedHashSet<>()), null);
+    }
+
+    public static RequestDeadline none() {
+        return new RequestDeadline(0, false, Collections.synchronizedSet(new LinkedHashSet<>()), null);
+    }
+
+    /**
+     * Same deadline and degradation record, labelled for a single stage
+     */
+    public RequestDeadline forStage(String stageName) {
+        return new RequestDeadline(deadlineNanos, bounded, degradedStages, stageName);
+    }
+
+    /**
+     * Same deadline with its own degradation record, e.g. for one trip of a batch
+     */
+    public RequestDeadline fork() {
+        return new RequestDeadline(deadlineNanos, bounded, Collections.synchronizedSet(new LinkedHashSet<>()), stage);
+    }
+
+    public boolean isBounded() {
+        return bounded;
+    }
+
+    public boolean isExpired() {
+        return bounded && System.nanoTime() - deadlineNanos >= 0;
+    }
+
+    public Duration remaining() {
+        if (!bounded) {
+            throw new IllegalStateException("Unbounded deadline has no remaining budget");
+        }
+        return Duration.ofNanos(Math.max(0, deadlineNanos - System.nanoTime()));
+    }
+
+    /**
+     * Applies the remaining budget as a timeout; unbounded deadlines leave the Mono untouched
+     */
+    public <T> Mono<T> bound(Mono<T> mono) {
+        if (!bounded) {
+            return mono;
+        }
+        return Mono.defer(() -> isExpired()
+                ? Mono.<T>error(new TimeoutException("Deadline exceeded before " + stageName()))
+                : mono.timeout(remaining()));
+    }
+
+    /**
+     * Runs a blocking call within the remaining budget, e.g. a ChatModel call
+     */
+    public <T> T call(Callable<T> task) throws Exception {
+        if (!bounded) {
+            return task.call();
+        }
+        return bound(Mono.fromCallable(task).subscribeOn(Schedulers.boundedElastic())).block();
+    }
+
+    public void markDegraded() {
+        degradedStages.add(stageName());
+    }
+
+    /**
+     * Whether this stage has fallen back
+     */
+    public boolean isDegraded() {
+        return degradedStages.contains(stageName());
+    }
+
+    public List<String> getDegradedStages() {
+        synchronized (degradedStages) {
+            return new ArrayList<>(degradedStages);
+        }
+    }
+
+    private String stageName() {
+        return stage != null ? stage : "request";
+    }
+}
@@ -0,0 +1,90 @@
+package com.travelplanner.backend.service;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.springframework.stereotype.Service;
+
+import com.travelplanner.backend.config.RouteRuleProperties;
+
+/**
+ * Deterministic distance and travel-mode estimation from coordinates, used before
+ * falling back to the LLM.
+ */
+@Service
+public class RouteEstimationService {
+
+    private static final double EARTH_RADIUS_KM = 6371.0;
+
+    private final RouteRuleProperties routeRules;
+
+    public RouteEstimationService(RouteRuleProperties routeRules) {
+        this.routeRules = routeRules;
+    }
+
+    /**
+     * Great-circle distance corrected by the configured road factor, in km
+     */
+    public double estimateRoadDistance(double sourceLat, double sourceLng, double destLat, double destLng) {
+        double dLat = Math.toRadians(destLat - sourceLat);
+        double dLng = Math.toRadians(destLng - sourceLng);
+        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2)
+                + Math.cos(Math.toRadians(sourceLat)) * Math.cos(Math.toRadians(destLat))
+                * Math.sin(dLng / 2) * Math.sin(dLng / 2);
+        double greatCircleKm = 2 * EARTH_RADIUS_KM * Math.atan2(Math.sqrt(a), Math.sqrt(1 - a));
+        return Math.round(greatCircleKm * routeRules.getRoadFactor() * 10) / 10.0;
+    }
+
+    /**
+     * Recommendation from the rule table, in the same shape as the LLM recommendation.
+     * The confidence is 0 when no rule matches.
+     */
+    public Map<String, Object> estimate(double sourceLat, double sourceLng, double destLat, double destLng,
+            int passengers, double budget, String comfortLevel) {
+        double distanceKm = estimateRoadDistance(sourceLat, sourceLng, destLat, destLng);
+        double budgetPerPassenger = budget / Math.max(1, passengers);
+
+        Map<String, Object> recommendation = new HashMap<>();
+        recommendation.put("distanceEstimate", distanceKm);
+        recommendation.put("recommendedMode", "car");
+        recommendation.put("confidenceScore", 0.0);
+        recommendation.put("reasoning", "No routing rule matched this trip");
+
+        for (RouteRuleProperties.Rule rule : routeRules.getRules()) {
+            if (rule.matches(distanceKm, budgetPerPassenger, comfortLevel)) {
+                recommendation.put("recommendedMode", rule.getMode());
+                recommendation.put("confidenceScore", rule.getConfidence());
+                recommendation.put("reasoning", formatReasoning(rule.getReasoning(), distanceKm, budgetPerPassenger));
+                break;
+            }
+        }
+        return recommendation;
+    }
+
+    /**
+     * Reasoning for recommending {@code mode}, quoting this request's own distance and budget.
+     * Uses the first rule for that mode which matches the trip, or a generic sentence.
+     */
+    public String describe(String mode, double distanceKm, int passengers, double budget, String comfortLevel) {
+        double budgetPerPassenger = budget / Math.max(1, passengers);
+        String reasoning = routeRules.getRules().stream()
+                .filter(rule -> rule.getMode().equalsIgnoreCase(mode))
+                .filter(rule -> rule.matches(distanceKm, budgetPerPassenger, comfortLevel))
+                .map(RouteRuleProperties.Rule::getReasoning)
+                .findFirst()
+                .orElse("Travelling by " + mode + " suits this route and budget");
+        return formatReasoning(reasoning, distanceKm, budgetPerPassenger);
+    }
+
+    private String formatReasoning(String reasoning, double distanceKm, double budgetPerPassenger) {
+        return String.format("%s (about %.0f km, ₹%.0f per passenger)", reasoning, distanceKm, budgetPerPassenger);
+    }
+
+    public boolean isConfident(Map<String, Object> recommendation) {
+        return ((Number) recommendation.get("confidenceScore")).doubleValue() >= routeRules.getMinConfidence();
+    }
+
+    public boolean isLlmReasoningEnabled() {
+        return routeRules.isLlmReasoning();
+    }
+}
@@ -0,0 +1,124 @@
+package com.travelplanner.backend.service;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+/**
+ * Cache of route recommendations keyed on the normalized city pair, comfort level,
+ * budget-per-passenger band and a coarse weather class, so popular routes skip the LLM.
+ * Only band-invariant fields are kept: the reasoning quotes the request's own budget,
+ * so callers rebuild it on a hit.
+ */
+@Component
+public class RouteRecommendationCache {
+
+    private final Cache<RouteKey, Map<String, Object>> cache;
+    private final double[] budgetBands;
+
+    public RouteRecommendationCache(MeterRegistry meterRegistry,
+            @Value("${app.route-cache.ttl:6h}") Duration ttl,
+            @Value("${app.route-cache.max-size:10000}") long maxSize,
+            @Value("${app.route-cache.budget-bands:1000,2500,5000,10000,25000}") double[] budgetBands) {
+        this.cache = Caffeine.newBuilder()
+                .expireAfterWrite(ttl)
+                .maximumSize(maxSize)
+                .recordStats()
+                .build();
+        this.budgetBands = budgetBands.clone();
+        Arrays.sort(this.budgetBands);
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "routeRecommendations");
+    }
+
+    public RouteKey key(String source, String destination, String comfortLevel,
+            int passengers, double budget, String sourceWeather, String destWeather) {
+        double budgetPerPassenger = budget / Math.max(1, passengers);
+        int band = 0;
+        while (band < budgetBands.length && budgetPerPassenger >= budgetBands[band]) {
+            band++;
+        }
+        WeatherClass weather = WeatherClass.of(sourceWeather).worse(WeatherClass.of(destWeather));
+        return new RouteKey(normalize(source), normalize(destination), comfortLevel, band, weather);
+    }
+
+    public Map<String, Object> get(RouteKey key) {
+        return cache.getIfPresent(key);
+    }
+
+    public void put(RouteKey key, Map<String, Object> recommendation) {
+        // LLM answers may contain null values, which Map.copyOf rejects
+        Map<String, Object> entry = new HashMap<>(recommendation);
+        entry.remove("reasoning");
+        cache.put(key, Collections.unmodifiableMap(entry));
+    }
+
+    public long invalidateAll() {
+        long size = cache.estimatedSize();
+        cache.invalidateAll();
+        return size;
+    }
+
+    /**
+     * Drops every entry for the given city pair, in either direction if {@code bothDirections}
+     */
+    public long invalidateRoute(String source, String destination, boolean bothDirections) {
+        String from = normalize(source);
+        String to = normalize(destination);
+        long before = cache.estimatedSize();
+        cache.asMap().keySet().removeIf(key ->
+                (key.source().equals(from) && key.destination().equals(to))
+                || (bothDirections && key.source().equals(to) && key.destination().equals(from)));
+        return before - cache.estimatedSize();
+    }
+
+    public Map<String, Object> getStats() {
+        CacheStats stats = cache.stats();
+        return Map.of(
+            "size", cache.estimatedSize(),
+            "hitCount", stats.hitCount(),
+            "missCount", stats.missCount(),
+            "hitRate", stats.hitRate(),
+            "evictionCount", stats.evictionCount()
+        );
+    }
+
+    private String normalize(String city) {
+        return city == null ? "" : city.trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+    }
+
+    public record RouteKey(String source, String destination, String comfortLevel, int budgetBand,
+            WeatherClass weather) {}
+
+    /**
+     * Coarse grouping of the weather conditions produced by WeatherService
+     */
+    public enum WeatherClass {
+        CLEAR, FOG, PRECIPITATION, STORM;
+
+        static WeatherClass of(String condition) {
+            if (condition == null) return CLEAR;
+            String lower = condition.toLowerCase(Locale.ROOT);
+            if (lower.contains("thunder")) return STORM;
+            if (lower.contains("rain") || lower.contains("snow")) return PRECIPITATION;
+            if (lower.contains("fog")) return FOG;
+            return CLEAR;
+        }
+
+        WeatherClass worse(WeatherClass other) {
+            return other.ordinal() > ordinal() ? other : this;
+        }
+    }
+}
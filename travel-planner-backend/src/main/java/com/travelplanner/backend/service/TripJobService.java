@@ -0,0 +1,215 @@
+package com.travelplanner.backend.service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+
+import com.travelplanner.backend.Entities.Trip;
+import com.travelplanner.backend.Entities.TripJob;
+import com.travelplanner.backend.dto.TripJobResponseDTO;
+import com.travelplanner.backend.dto.TripRequest;
+import com.travelplanner.backend.dto.TripResponseDTO;
+import com.travelplanner.backend.repository.TripJobRepository;
+
+@Service
+public class TripJobService {
+
+    private static final Logger log = LoggerFactory.getLogger(TripJobService.class);
+
+    private static final List<TripJob.Status> FINISHED = List.of(TripJob.Status.COMPLETED, TripJob.Status.FAILED);
+    private static final List<TripJob.Status> UNFINISHED = List.of(TripJob.Status.PENDING, TripJob.Status.RUNNING);
+
+    private final TripJobRepository tripJobRepository;
+    private final TripService tripService;
+    private final ThreadPoolTaskExecutor tripJobExecutor;
+
+    private static final String RESTART_MESSAGE = "Trip planning was interrupted by a server restart, please try again";
+
+    // Jobs only run on their owner's executor, so whatever this node left unfinished before startup is lost
+    private final LocalDateTime startedAt = LocalDateTime.now();
+
+    // Jobs queued or running on this node; their heartbeat keeps other nodes from failing them
+    private final Set<String> activeJobs = ConcurrentHashMap.newKeySet();
+
+    @Value("${app.instance-id:${HOSTNAME:local}}")
+    private String nodeId;
+
+    @Value("${app.trip-jobs.lease:90s}")
+    private Duration jobLease;
+
+    @Value("${app.deadline.trip-job:120s}")
+    private Duration jobDeadline;
+
+    @Value("${app.trip-jobs.retention:7d}")
+    private Duration jobRetention;
+
+    public TripJobService(TripJobRepository tripJobRepository, TripService tripService,
+            @Qualifier("tripJobExecutor") ThreadPoolTaskExecutor tripJobExecutor) {
+        this.tripJobRepository = tripJobRepository;
+        this.tripService = tripService;
+        this.tripJobExecutor = tripJobExecutor;
+    }
+
+    /**
+     * Registers a trip creation job and runs it on the bounded job executor.
+     */
+    public TripJobResponseDTO submit(TripRequest request, String username) {
+        TripJob job = new TripJob(UUID.randomUUID().toString(), username);
+        job.setStage(TripPlanningStage.QUEUED.name());
+        job.setOwnerNode(nodeId);
+        TripJob savedJob = tripJobRepository.save(job);
+
+        activeJobs.add(savedJob.getId());
+        try {
+            tripJobExecutor.execute(() -> runJob(savedJob.getId(), request, username));
+        } catch (TaskRejectedException e) {
+            activeJobs.remove(savedJob.getId());
+            log.warn("Trip job queue is full, rejecting job {} for user {}", savedJob.getId(), username);
+            markFailed(savedJob.getId(), "Trip planning is busy, please try again shortly");
+            throw new RuntimeException("Trip planning is busy, please try again shortly");
+        }
+
+        log.info("Queued trip job {} for user {}", savedJob.getId(), username);
+        return new TripJobResponseDTO(savedJob);
+    }
+
+    public TripJobResponseDTO getJob(String jobId, String username) {
+        TripJob job = tripJobRepository.findByIdAndUsername(jobId, username)
+                .orElseThrow(() -> new RuntimeException("Trip job not found"));
+
+        TripJobResponseDTO dto = new TripJobResponseDTO(job);
+        if (job.getStatus() == TripJob.Status.COMPLETED && job.getTripId() != null) {
+            TripResponseDTO trip = tripService.getUserTrip(job.getTripId(), username);
+            if (job.getDegradedStages() != null) {
+                trip.setDegradedStages(List.of(job.getDegradedStages().split(",")));
+            }
+            dto.setTrip(trip);
+        }
+        return dto;
+    }
+
+    /**
+     * Fails the jobs this node left pending or running before it restarted; their executor is gone.
+     * Jobs of other nodes are left alone unless their lease ran out.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void failOrphanedJobs() {
+        try {
+            int orphaned = tripJobRepository.failOwnedUpdatedBefore(nodeId, UNFINISHED, startedAt,
+                    RESTART_MESSAGE, LocalDateTime.now());
+            if (orphaned > 0) {
+                log.warn("Marked {} trip jobs orphaned by the restart of node {} as failed", orphaned, nodeId);
+            }
+        } catch (Exception e) {
+            log.warn("Could not fail orphaned trip jobs: {}", e.getMessage());
+        }
+        failExpiredJobs();
+    }
+
+    /**
+     * Refreshes the lease of every job queued or running on this node.
+     */
+    @Scheduled(fixedDelayString = "${app.trip-jobs.heartbeat-interval:PT20S}",
+            initialDelayString = "${app.trip-jobs.heartbeat-interval:PT20S}")
+    public void heartbeat() {
+        if (activeJobs.isEmpty()) {
+            return;
+        }
+        try {
+            tripJobRepository.touch(List.copyOf(activeJobs), UNFINISHED, LocalDateTime.now());
+        } catch (Exception e) {
+            log.warn("Could not refresh trip job leases: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Fails unfinished jobs whose owner stopped refreshing their lease, e.g. a node that was
+     * scaled down and never came back.
+     */
+    @Scheduled(fixedDelayString = "${app.trip-jobs.lease-check-interval:PT1M}",
+            initialDelayString = "${app.trip-jobs.lease-check-interval:PT1M}")
+    public void failExpiredJobs() {
+        try {
+            int expired = tripJobRepository.failByStatusUpdatedBefore(UNFINISHED,
+                    LocalDateTime.now().minus(jobLease), RESTART_MESSAGE, LocalDateTime.now());
+            if (expired > 0) {
+                log.warn("Marked {} trip jobs with an expired lease as failed", expired);
+            }
+        } catch (Exception e) {
+            log.warn("Could not fail trip jobs with an expired lease: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Deletes finished jobs once they are older than the retention window.
+     */
+    @Scheduled(fixedDelayString = "${app.trip-jobs.cleanup-interval:PT1H}",
+            initialDelayString = "${app.trip-jobs.cleanup-interval:PT1H}")
+    public void purgeFinishedJobs() {
+        try {
+            int purged = tripJobRepository.deleteByStatusUpdatedBefore(FINISHED, LocalDateTime.now().minus(jobRetention));
+            if (purged > 0) {
+                log.info("Purged {} finished trip jobs older than {}", purged, jobRetention);
+            }
+        } catch (Exception e) {
+            log.warn("Could not purge finished trip jobs: {}", e.getMessage());
+        }
+    }
+
+    private void runJob(String jobId, TripRequest request, String username) {
+        try {
+            updateJob(jobId, TripJob.Status.RUNNING, TripPlanningStage.QUEUED);
+
+            Trip trip = tripService.createTrip(request, username, RequestDeadline.within(jobDeadline),
+                    stage -> updateJob(jobId, TripJob.Status.RUNNING, stage));
+
+            TripJob job = tripJobRepository.findById(jobId).orElseThrow();
+            job.setStatus(TripJob.Status.COMPLETED);
+            job.setStage(TripPlanningStage.COMPLETED.name());
+            job.setProgress(TripPlanningStage.COMPLETED.getProgress());
+            job.setTripId(trip.getId());
+            if (!trip.getDegradedStages().isEmpty()) {
+                job.setDegradedStages(String.join(",", trip.getDegradedStages()));
+            }
+            tripJobRepository.save(job);
+
+            log.info("Trip job {} completed with trip {}", jobId, trip.getId());
+        } catch (Exception e) {
+            log.error("Trip job {} failed", jobId, e);
+            markFailed(jobId, e.getMessage());
+        } finally {
+            activeJobs.remove(jobId);
+        }
+    }
+
+    private void updateJob(String jobId, TripJob.Status status, TripPlanningStage stage) {
+        tripJobRepository.findById(jobId).ifPresent(job -> {
+            job.setStatus(status);
+            job.setStage(stage.name());
+            job.setProgress(stage.getProgress());
+            tripJobRepository.save(job);
+        });
+    }
+
+    private void markFailed(String jobId, String errorMessage) {
+        tripJobRepository.findById(jobId).ifPresent(job -> {
+            job.setStatus(TripJob.Status.FAILED);
+            job.setErrorMessage(errorMessage);
+            tripJobRepository.save(job);
+        });
+    }
+}
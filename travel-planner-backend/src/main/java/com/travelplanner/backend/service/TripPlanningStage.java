@@ -0,0 +1,23 @@
+package com.travelplanner.backend.service;
+
+/**
+ * Stages of the trip creation pipeline, with the rough progress each one represents.
+ */
+public enum TripPlanningStage {
+    QUEUED(0),
+    RESOLVING_LOCATIONS(10),
+    RECOMMENDING_ROUTE(40),
+    RECOMMENDING_PLACES(70),
+    SAVING(90),
+    COMPLETED(100);
+
+    private final int progress;
+
+    TripPlanningStage(int progress) {
+        this.progress = progress;
+    }
+
+    public int getProgress() {
+        return progress;
+    }
+}
@@ -0,0 +1,159 @@
+package com.travelplanner.backend.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.travelplanner.backend.Entities.Trip;
+import com.travelplanner.backend.dto.TripRequest;
+
+/**
+ * Single-flight coalescing for trip creation. Identical requests from the same user
+ * (retries, double-clicks) attach to the computation already in progress, and a
+ * completed result is handed out again for a short window instead of planning a new trip.
+ */
+@Component
+public class TripRequestCoalescer {
+
+    private static final Logger log = LoggerFactory.getLogger(TripRequestCoalescer.class);
+
+    private final ConcurrentHashMap<String, Flight> flights = new ConcurrentHashMap<>();
+
+    @Value("${app.trip-coalescing.result-ttl-ms:10000}")
+    private long resultTtlMs;
+
+    /**
+     * Runs {@code tripCreator} unless an identical request is in flight or just finished. The
+     * creator reports its stages to the listener it is given; every caller attached to the
+     * computation sees them, a late one starting with the latest stage. A caller that attached
+     * waits no longer than its own deadline.
+     */
+    public Trip execute(String username, TripRequest request, RequestDeadline deadline,
+            Consumer<TripPlanningStage> progressListener, Function<Consumer<TripPlanningStage>, Trip> tripCreator) {
+        flights.values().removeIf(Flight::isExpired);
+
+        String key = fingerprint(username, request);
+        Flight candidate = new Flight(progressListener);
+        Flight flight = flights.compute(key,
+                (k, existing) -> existing != null && !existing.isExpired() ? existing : candidate);
+
+        if (flight != candidate) {
+            log.info("Coalescing duplicate trip request for user {} onto in-flight computation", username);
+            return await(flight, deadline, progressListener);
+        }
+
+        try {
+            Trip trip = tripCreator.apply(flight::report);
+            flight.completedAt = System.currentTimeMillis();
+            flight.result.complete(trip);
+            return trip;
+        } catch (Throwable e) {
+            // Failures (errors included) are not remembered; the next attempt starts a fresh computation
+            flights.remove(key, flight);
+            flight.result.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    private Trip await(Flight flight, RequestDeadline deadline, Consumer<TripPlanningStage> progressListener) {
+        flight.follow(progressListener);
+        try {
+            return deadline.isBounded()
+                    ? flight.result.get(deadline.remaining().toNanos(), TimeUnit.NANOSECONDS)
+                    : flight.result.get();
+        } catch (TimeoutException e) {
+            throw new IllegalStateException("Deadline exceeded while waiting for an identical trip request in progress");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for an identical trip request in progress", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw e.getCause() instanceof RuntimeException runtime ? runtime : new IllegalStateException(e.getCause());
+        } finally {
+            flight.unfollow(progressListener);
+        }
+    }
+
+    /**
+     * Normalized fingerprint of everything that shapes the planned trip
+     */
+    private String fingerprint(String username, TripRequest request) {
+        List<String> interests = request.getInterests() == null ? List.of() : request.getInterests().stream()
+                .map(this::normalize)
+                .filter(interest -> !interest.isEmpty())
+                .sorted()
+                .collect(Collectors.toList());
+
+        return String.join("|",
+                username,
+                normalize(request.getSourceCity()),
+                normalize(request.getDestinationCity()),
+                String.valueOf(request.getPassengers()),
+                request.getBudget() == null ? "null" : String.format(Locale.ROOT, "%.2f", request.getBudget()),
+                String.valueOf(request.getComfortLevel()),
+                String.join(",", interests),
+                String.valueOf(request.getTripDuration()),
+                String.valueOf(request.getStartDate()));
+    }
+
+    private String normalize(String value) {
+        return value == null ? "" : value.trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+    }
+
+    private class Flight {
+        private final CompletableFuture<Trip> result = new CompletableFuture<>();
+        private final Consumer<TripPlanningStage> leader;
+        private final List<Consumer<TripPlanningStage>> followers = new ArrayList<>();
+        private TripPlanningStage stage;
+        private volatile long completedAt;
+
+        private Flight(Consumer<TripPlanningStage> leader) {
+            this.leader = leader;
+        }
+
+        private boolean isExpired() {
+            return completedAt > 0 && System.currentTimeMillis() - completedAt > resultTtlMs;
+        }
+
+        private synchronized void report(TripPlanningStage stage) {
+            this.stage = stage;
+            leader.accept(stage);
+            followers.forEach(follower -> notify(follower, stage));
+        }
+
+        private synchronized void follow(Consumer<TripPlanningStage> follower) {
+            followers.add(follower);
+            if (stage != null && !result.isDone()) {
+                notify(follower, stage);
+            }
+        }
+
+        private synchronized void unfollow(Consumer<TripPlanningStage> follower) {
+            followers.remove(follower);
+        }
+
+        // Another caller's listener must not fail the computation
+        private void notify(Consumer<TripPlanningStage> follower, TripPlanningStage stage) {
+            try {
+                follower.accept(stage);
+            } catch (RuntimeException e) {
+                log.warn("Progress listener of a coalesced trip request failed: {}", e.getMessage());
+            }
+        }
+    }
+}
@@ -1,28 +1,56 @@
 package com.travelplanner.backend.service;
 
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.travelplanner.backend.Entities.Trip;
 import com.travelplanner.backend.Entities.User;
+import com.travelplanner.backend.dto.BatchTripResultDTO;
+import com.travelplanner.backend.dto.DailyForecastDTO;
+import com.travelplanner.backend.dto.GeocodeBatchResultDTO;
 import com.travelplanner.backend.dto.PlaceRecommendationResponse;
+import com.travelplanner.backend.dto.TripReplanRequest;
 import com.travelplanner.backend.dto.TripRequest;
 import com.travelplanner.backend.dto.TripResponseDTO;
 import com.travelplanner.backend.dto.WeatherAnalysis;
 import com.travelplanner.backend.repository.ChatHistoryRepository;
 import com.travelplanner.backend.repository.TripRepository;
 
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+import reactor.util.function.Tuple2;
+import reactor.util.function.Tuples;
+
 @Service
 public class TripService {
     
     private static final Logger log = LoggerFactory.getLogger(TripService.class);
     
+    // Trip length assumed for place recommendations when none is given (e.g. trips stored before it was kept)
+    private static final int DEFAULT_TRIP_DURATION = 3;
+    
     private final TripRepository tripRepository;
     private final UserService userService;
     private final GeocodingService geocodingService;
@@ -31,12 +59,28 @@ public class TripService {
     private final PlaceRecommendationService placeRecommendationService;
     private final ChatService chatService;
     private final ChatHistoryRepository chatHistoryRepository;
+    private final Executor tripChatExecutor;
+    private final TripRequestCoalescer tripRequestCoalescer;
+    private final ObjectMapper objectMapper;
+    
+    // Single trips and re-plans don't share an LLM limit with anything
+    private static final Semaphore UNLIMITED_LLM = new Semaphore(Integer.MAX_VALUE);
+    private static final TypeReference<List<DailyForecastDTO>> FORECAST_TYPE = new TypeReference<>() {};
+    
+    @Value("${app.trip-batch.lookup-concurrency:4}")
+    private int batchLookupConcurrency;
+    
+    @Value("${app.trip-batch.llm-parallelism:2}")
+    private int batchLlmParallelism;
+    
     
     public TripService(TripRepository tripRepository, UserService userService,
             GeocodingService geocodingService, WeatherService weatherService,
             AIRecommendationService aiRecommendationService, FamousPlaceService famousPlaceService,
             PlaceRecommendationService placeRecommendationService,
-            ChatService chatService,ChatHistoryRepository chatHistoryRepository) {
+            ChatService chatService,ChatHistoryRepository chatHistoryRepository,
+            @Qualifier("tripChatExecutor") Executor tripChatExecutor,
+            TripRequestCoalescer tripRequestCoalescer, ObjectMapper objectMapper) {
         this.tripRepository = tripRepository;
         this.userService = userService;
         this.geocodingService = geocodingService;
@@ -45,47 +89,175 @@ public class TripService {
         this.placeRecommendationService = placeRecommendationService;
         this.chatService = chatService;
         this.chatHistoryRepository = chatHistoryRepository;
+        this.tripChatExecutor = tripChatExecutor;
+        this.tripRequestCoalescer = tripRequestCoalescer;
+        this.objectMapper = objectMapper;
     }
 
     public Trip createTrip(TripRequest request, String username) {
+        return createTrip(request, username, RequestDeadline.none(), stage -> {});
+    }
+
+    public Trip createTrip(TripRequest request, String username, RequestDeadline deadline) {
+        return createTrip(request, username, deadline, stage -> {});
+    }
+
+    /**
+     * Creates a trip within the given deadline, reporting each pipeline stage to the listener as it starts.
+     * Stages that run out of budget fall back and are listed in the trip's degraded stages.
+     */
+    public Trip createTrip(TripRequest request, String username, RequestDeadline deadline,
+            Consumer<TripPlanningStage> progressListener) {
+        return tripRequestCoalescer.execute(username, request, deadline, progressListener,
+                listener -> planTrip(request, username, deadline, listener));
+    }
+
+    private Trip planTrip(TripRequest request, String username, RequestDeadline deadline,
+            Consumer<TripPlanningStage> progressListener) {
         try {
             User user = userService.findByUsername(username);
             
             log.info("Creating trip for user: {} from {} to {}", username, request.getSourceCity(), request.getDestinationCity());
             
-            // Get coordinates for source and destination
-            Map<String, Double> sourceCoords = geocodingService.getCoordinates(request.getSourceCity())
-                    .doOnError(error -> log.warn("Geocoding failed for source city: {}, using fallback", request.getSourceCity()))
-                    .block();
+            long pipelineStart = System.currentTimeMillis();
+            
+            // Place recommendations only depend on the request, so start that LLM call right away
+            // and let it run alongside geocoding, weather and the route recommendation
+            CompletableFuture<PlaceRecommendationResponse> placesFuture =
+                    startPlaceRecommendations(request, deadline, UNLIMITED_LLM);
             
-            Map<String, Double> destCoords = geocodingService.getCoordinates(request.getDestinationCity())
-                    .doOnError(error -> log.warn("Geocoding failed for destination city: {}, using fallback", request.getDestinationCity()))
+            progressListener.accept(TripPlanningStage.RESOLVING_LOCATIONS);
+            
+            // Geocode both cities concurrently, then fetch both weathers in one batched request
+            Tuple2<CityContext, CityContext> cities = resolveCities(
+                    request.getSourceCity(), request.getDestinationCity(), deadline)
                     .block();
+            long locationsMs = System.currentTimeMillis() - pipelineStart;
             
-            // Get weather data
-            WeatherAnalysis sourceWeather = weatherService.getWeatherAnalysis(
-                sourceCoords.get("lat"), sourceCoords.get("lng")
-            ).doOnError(error -> log.warn("Weather API failed for source, using default"))
-             .onErrorReturn(getDefaultWeatherAnalysis())
-             .block();
-
-            WeatherAnalysis destWeather = weatherService.getWeatherAnalysis(
-                destCoords.get("lat"), destCoords.get("lng")
-            ).doOnError(error -> log.warn("Weather API failed for destination, using default"))
-             .onErrorReturn(getDefaultWeatherAnalysis())
-             .block();
-
-            // Get AI recommendations
-            Map<String, Object> recommendations = aiRecommendationService.getTravelRecommendation(
-                request.getSourceCity(), request.getDestinationCity(),
-                request.getPassengers(), request.getBudget(),
-                request.getComfortLevel().name(), 
-                sourceWeather.getCondition(), 
-                destWeather.getCondition()
-            );
+            return completeTrip(request, user, cities.getT1(), cities.getT2(), placesFuture,
+                    deadline, UNLIMITED_LLM, progressListener, pipelineStart, locationsMs);
             
-            String conversationId = "trip_" + System.currentTimeMillis();
-                 
+        } catch (Exception e) {
+            log.error("Error creating trip for user: {}", username, e);
+            throw new RuntimeException("Failed to create trip: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Plans a batch of trips. Distinct cities across the whole batch are geocoded once with
+     * bounded concurrency and their weather fetched in one batched request; each trip's result is emitted as
+     * soon as it is ready. Every LLM call of the batch (places, route and chat seeding) shares one limit of
+     * {@code app.trip-batch.llm-parallelism} concurrent calls.
+     */
+    public Flux<BatchTripResultDTO> createTrips(List<TripRequest> requests, String username, RequestDeadline deadline) {
+        User user = userService.findByUsername(username);
+        long batchStart = System.currentTimeMillis();
+        
+        Map<String, String> distinctCities = new LinkedHashMap<>();
+        for (TripRequest request : requests) {
+            addCity(distinctCities, request.getSourceCity());
+            addCity(distinctCities, request.getDestinationCity());
+        }
+        
+        Semaphore llmPermits = new Semaphore(batchLlmParallelism);
+        
+        log.info("Planning batch of {} trips for user: {} across {} distinct cities",
+                requests.size(), username, distinctCities.size());
+        
+        return geocodingService.geocodeCities(
+                        new ArrayList<>(distinctCities.values()), batchLookupConcurrency, deadline)
+                .collectList()
+                .flatMap(locations -> weatherService.getWeatherAnalyses(
+                                locations.stream().map(this::weatherPointOf).toList(),
+                                locations.stream().map(location -> deadline.forStage("weather:" + location.getCity())).toList())
+                        .map(weathers -> {
+                            Map<String, CityContext> contexts = new LinkedHashMap<>();
+                            for (int i = 0; i < locations.size(); i++) {
+                                GeocodeBatchResultDTO location = locations.get(i);
+                                contexts.put(normalizeCity(location.getCity()), new CityContext(coordsOf(location),
+                                        location.isResolved(), weathers.get(i), 0, 0));
+                            }
+                            return contexts;
+                        }))
+                .doOnNext(contexts -> log.info("Resolved {} batch locations in {} ms",
+                        contexts.size(), System.currentTimeMillis() - batchStart))
+                .flatMapMany(contexts -> Flux.range(0, requests.size())
+                        .flatMap(index -> Mono.fromCallable(() -> planBatchTrip(index, requests.get(index), user, contexts,
+                                        deadline, llmPermits))
+                                .subscribeOn(Schedulers.boundedElastic()),
+                                batchLlmParallelism));
+    }
+
+    private BatchTripResultDTO planBatchTrip(int index, TripRequest request, User user,
+            Map<String, CityContext> contexts, RequestDeadline batchDeadline, Semaphore llmPermits) {
+        try {
+            CityContext source = contexts.get(normalizeCity(request.getSourceCity()));
+            CityContext destination = contexts.get(normalizeCity(request.getDestinationCity()));
+            if (source == null || destination == null) {
+                return BatchTripResultDTO.failed(index, "Source and destination cities are required");
+            }
+            
+            long tripStart = System.currentTimeMillis();
+            RequestDeadline deadline = batchDeadline.fork();
+            CompletableFuture<PlaceRecommendationResponse> placesFuture =
+                    startPlaceRecommendations(request, deadline, llmPermits);
+            Trip trip = completeTrip(request, user, source, destination, placesFuture,
+                    deadline, llmPermits, stage -> {}, tripStart, 0);
+            
+            // Shared lookups were recorded on the batch deadline under the city they belong to
+            List<String> degraded = new ArrayList<>(trip.getDegradedStages());
+            for (String stage : batchDeadline.getDegradedStages()) {
+                String city = normalizeCity(stage.substring(stage.indexOf(':') + 1));
+                if (city.equals(normalizeCity(request.getSourceCity()))
+                        || city.equals(normalizeCity(request.getDestinationCity()))) {
+                    degraded.add(stage);
+                }
+            }
+            trip.setDegradedStages(degraded);
+            
+            return BatchTripResultDTO.created(index, new TripResponseDTO(trip));
+        } catch (Exception e) {
+            log.error("Batch trip {} failed for user: {}", index, user.getUsername(), e);
+            return BatchTripResultDTO.failed(index, e.getMessage());
+        }
+    }
+
+    private CompletableFuture<PlaceRecommendationResponse> startPlaceRecommendations(TripRequest request,
+            RequestDeadline deadline, Semaphore llmPermits) {
+        return Mono.fromCallable(() -> withLlmPermit(llmPermits, () ->
+                placeRecommendationService.getAIRecommendedPlaces(
+                    request.getDestinationCity(),
+                    request.getInterests(),
+                    request.getTripDuration() != null ? request.getTripDuration() : DEFAULT_TRIP_DURATION,
+                    request.getBudget(),
+                    request.getPassengers() + " passengers",
+                    deadline.forStage("places"))))
+                .subscribeOn(Schedulers.boundedElastic())
+                .toFuture();
+    }
+
+    /**
+     * Runs an LLM-backed call while holding one of the given permits
+     */
+    private static <T> T withLlmPermit(Semaphore llmPermits, Supplier<T> call) {
+        llmPermits.acquireUninterruptibly();
+        try {
+            return call.get();
+        } finally {
+            llmPermits.release();
+        }
+    }
+
+    /**
+     * Starts the background chat history for a new trip. The LLM permit is taken here, before the
+     * task is queued, and held until both messages are done, so chat threads never wait for one.
+     * A task the saturated chat pool turns away marks the chat-seeding stage degraded.
+     */
+    private void seedTripChat(TripRequest request, String username, String conversationId,
+            WeatherAnalysis sourceWeather, WeatherAnalysis destWeather, Map<String, Object> recommendations,
+            RequestDeadline deadline, Semaphore llmPermits) {
+        llmPermits.acquireUninterruptibly();
+        try {
             CompletableFuture.runAsync(() -> {
                 try {
                     log.info("Starting async chat history creation for trip {}", conversationId);
@@ -99,73 +271,421 @@ public class TripService {
                     log.info("Completed async chat history creation for trip {}", conversationId);
                 } catch (Exception e) {
                     log.error("Failed to create chat history for trip {}", conversationId, e);
+                } finally {
+                    llmPermits.release();
                 }
-            });
-
-            Trip trip = new Trip();
-            trip.setUser(user);
-            trip.setSourceCity(request.getSourceCity());
-            trip.setDestinationCity(request.getDestinationCity());
-            trip.setSourceLat(sourceCoords.get("lat"));
-            trip.setSourceLng(sourceCoords.get("lng"));
-            trip.setDestLat(destCoords.get("lat"));
-            trip.setDestLng(destCoords.get("lng"));
-            trip.setPassengers(request.getPassengers());
-            trip.setBudget(request.getBudget());
-            trip.setComfortLevel(request.getComfortLevel());
-            trip.setRecommendedMode((String) recommendations.get("recommendedMode"));
-            
-            // Handle both Integer and Double for distance
-            Object distanceObj = recommendations.get("distanceEstimate");
-            if (distanceObj instanceof Integer) {
-                trip.setDistanceEstimate(((Integer) distanceObj).doubleValue());
-            } else {
-                trip.setDistanceEstimate((Double) distanceObj);
-            }
-            
-            // Handle both Integer and Double for confidence score
-            Object confidenceObj = recommendations.get("confidenceScore");
-            if (confidenceObj instanceof Integer) {
-                trip.setConfidenceScore(((Integer) confidenceObj).doubleValue());
-            } else {
-                trip.setConfidenceScore((Double) confidenceObj);
-            }
-            
-            // Set weather info
-            trip.setSourceWeather("Temp: " + sourceWeather.getTemperature() + "°C, " + 
-                                 sourceWeather.getCondition() + ", Wind: " + 
-                                 sourceWeather.getWindSpeed() + " km/h");
-                                 
-            trip.setDestinationWeather("Temp: " + destWeather.getTemperature() + "°C, " + 
-                                      destWeather.getCondition() + ", Wind: " + 
-                                      destWeather.getWindSpeed() + " km/h");
-
-            // Get AI-curated place recommendations
-            PlaceRecommendationResponse placeRecommendations = 
-                placeRecommendationService.getAIRecommendedPlaces(
-                    request.getDestinationCity(),
-                    request.getInterests(),
-                    request.getTripDuration(),
-                    request.getBudget(),
-                    request.getPassengers() + " passengers"
-                );
-            
-            trip.setRecommendedPlaces(placeRecommendations.getRecommendedPlaces());
-            
-            // Store conversation ID
-            trip.setConversationId(conversationId);
-            
-            Trip savedTrip = tripRepository.save(trip);
-            log.info("Trip created successfully with ID: {} and conversation: {}", savedTrip.getId(), conversationId);
-            
-            return savedTrip;
-            
-        } catch (Exception e) {
-            log.error("Error creating trip for user: {}", username, e);
-            throw new RuntimeException("Failed to create trip: " + e.getMessage());
+            }, tripChatExecutor);
+        } catch (RejectedExecutionException e) {
+            llmPermits.release();
+            deadline.forStage("chat-seeding").markDegraded();
+        }
+    }
+
+    /**
+     * Route recommendation, chat seeding, place join and save for a trip whose locations are resolved
+     */
+    private Trip completeTrip(TripRequest request, User user, CityContext source, CityContext destination,
+            CompletableFuture<PlaceRecommendationResponse> placesFuture, RequestDeadline deadline,
+            Semaphore llmPermits, Consumer<TripPlanningStage> progressListener, long pipelineStart, long locationsMs) {
+        String username = user.getUsername();
+        Map<String, Double> sourceCoords = source.coords();
+        Map<String, Double> destCoords = destination.coords();
+        WeatherAnalysis sourceWeather = source.weather();
+        WeatherAnalysis destWeather = destination.weather();
+
+        // The destination forecast only needs coordinates, so fetch it while the route is recommended
+        CompletableFuture<List<DailyForecastDTO>> forecastFuture = startTripForecast(request, destCoords, deadline);
+
+        // Get AI recommendations
+        progressListener.accept(TripPlanningStage.RECOMMENDING_ROUTE);
+        long routeStart = System.currentTimeMillis();
+        Map<String, Object> recommendations = withLlmPermit(llmPermits, () -> aiRecommendationService.getTravelRecommendation(
+            request.getSourceCity(), request.getDestinationCity(),
+            source.coordsResolved() ? sourceCoords : null,
+            destination.coordsResolved() ? destCoords : null,
+            request.getPassengers(), request.getBudget(),
+            request.getComfortLevel().name(), 
+            sourceWeather.getCondition(), 
+            destWeather.getCondition(),
+            deadline.forStage("route")
+        ));
+        long routeMs = System.currentTimeMillis() - routeStart;
+        
+        String conversationId = "trip_" + UUID.randomUUID();
+        seedTripChat(request, username, conversationId, sourceWeather, destWeather, recommendations,
+                deadline, llmPermits);
+
+        Trip trip = new Trip();
+        trip.setUser(user);
+        trip.setSourceCity(request.getSourceCity());
+        trip.setDestinationCity(request.getDestinationCity());
+        trip.setSourceLat(sourceCoords.get("lat"));
+        trip.setSourceLng(sourceCoords.get("lng"));
+        trip.setDestLat(destCoords.get("lat"));
+        trip.setDestLng(destCoords.get("lng"));
+        trip.setPassengers(request.getPassengers());
+        trip.setBudget(request.getBudget());
+        trip.setComfortLevel(request.getComfortLevel());
+        trip.setTripDuration(request.getTripDuration());
+        trip.setStartDate(request.getStartDate());
+        trip.setInterests(joinInterests(request.getInterests()));
+        applyRouteRecommendation(trip, recommendations);
+        
+        // Set weather info
+        applyWeather(trip, sourceWeather, destWeather);
+
+        // Join the place recommendations started at the beginning of the request
+        progressListener.accept(TripPlanningStage.RECOMMENDING_PLACES);
+        long placesStart = System.currentTimeMillis();
+        PlaceRecommendationResponse placeRecommendations = placesFuture.join();
+        
+        trip.setRecommendedPlaces(placeRecommendations.getRecommendedPlaces());
+        long placesMs = System.currentTimeMillis() - placesStart;
+        
+        // Store conversation ID
+        trip.setConversationId(conversationId);
+        applyForecast(trip, forecastFuture.join());
+        
+        progressListener.accept(TripPlanningStage.SAVING);
+        long saveStart = System.currentTimeMillis();
+        Trip savedTrip = tripRepository.save(trip);
+        savedTrip.setDegradedStages(deadline.getDegradedStages());
+        long saveMs = System.currentTimeMillis() - saveStart;
+        log.info("Trip created successfully with ID: {} and conversation: {}", savedTrip.getId(), conversationId);
+        if (!savedTrip.getDegradedStages().isEmpty()) {
+            log.warn("Trip {} was created with degraded stages: {}", savedTrip.getId(), savedTrip.getDegradedStages());
+        }
+        log.info("Trip {} stage timings: source[geocode={} ms, weather={} ms], destination[geocode={} ms, weather={} ms], "
+                + "locations={} ms, route={} ms, places wait={} ms, save={} ms, total={} ms",
+                savedTrip.getId(),
+                source.geocodeMs(), source.weatherMs(),
+                destination.geocodeMs(), destination.weatherMs(),
+                locationsMs, routeMs, placesMs, saveMs,
+                System.currentTimeMillis() - pipelineStart);
+        
+        return savedTrip;
+    }
+
+    /**
+     * Re-plans an existing trip, reusing the stored coordinates, weather and places and
+     * recomputing only the stages whose inputs changed.
+     */
+    public TripResponseDTO replanTrip(Long tripId, TripReplanRequest changes, String username, RequestDeadline deadline) {
+        Trip trip = tripRepository.findByIdWithPlaces(tripId);
+        
+        if (trip == null) {
+            throw new RuntimeException("Trip not found");
+        }
+        
+        if (!trip.getUser().getUsername().equals(username)) {
+            throw new RuntimeException("Access denied");
         }
+        
+        TripRequest request = mergeReplanRequest(trip, changes);
+        List<String> reused = new ArrayList<>();
+        List<String> recomputed = new ArrayList<>();
+        
+        // Trips saved without coordinates are treated as changed so their locations get resolved again
+        boolean sourceChanged = !normalizeCity(request.getSourceCity()).equals(normalizeCity(trip.getSourceCity()))
+                || trip.getSourceLat() == null || trip.getSourceLng() == null;
+        boolean destinationChanged = !normalizeCity(request.getDestinationCity()).equals(normalizeCity(trip.getDestinationCity()))
+                || trip.getDestLat() == null || trip.getDestLng() == null;
+        boolean routeInputsChanged = sourceChanged || destinationChanged
+                || !Objects.equals(request.getPassengers(), trip.getPassengers())
+                || !Objects.equals(request.getBudget(), trip.getBudget())
+                || request.getComfortLevel() != trip.getComfortLevel();
+        boolean placeInputsChanged = destinationChanged
+                || !Objects.equals(request.getPassengers(), trip.getPassengers())
+                || !Objects.equals(request.getBudget(), trip.getBudget())
+                || !Objects.equals(request.getTripDuration(), trip.getTripDuration())
+                || !Objects.equals(joinInterests(request.getInterests()), trip.getInterests());
+        
+        log.info("Re-planning trip {} for user: {} (source changed: {}, destination changed: {}, route: {}, places: {})",
+                tripId, username, sourceChanged, destinationChanged, routeInputsChanged, placeInputsChanged);
+        
+        // Start the place recommendation first so it overlaps any location lookups
+        CompletableFuture<PlaceRecommendationResponse> placesFuture = placeInputsChanged
+                ? startPlaceRecommendations(request, deadline, UNLIMITED_LLM)
+                : null;
+        
+        // Trips stored before the weather was kept in structured form get theirs fetched again
+        WeatherAnalysis storedSourceWeather = sourceChanged ? null : readWeather(trip.getSourceWeatherData());
+        WeatherAnalysis storedDestinationWeather = destinationChanged ? null : readWeather(trip.getDestinationWeatherData());
+        
+        Mono<CityContext> sourceLookup = sourceChanged
+                ? resolveCity(request.getSourceCity(), "source", deadline)
+                : storedCityContext(trip.getSourceLat(), trip.getSourceLng(), storedSourceWeather, "source", deadline);
+        Mono<CityContext> destinationLookup = destinationChanged
+                ? resolveCity(request.getDestinationCity(), "destination", deadline)
+                : storedCityContext(trip.getDestLat(), trip.getDestLng(), storedDestinationWeather, "destination", deadline);
+        Tuple2<CityContext, CityContext> cities = Mono.zip(sourceLookup, destinationLookup).block();
+        CityContext source = cities.getT1();
+        CityContext destination = cities.getT2();
+        
+        (sourceChanged ? recomputed : reused).add("source-geocoding");
+        (storedSourceWeather == null ? recomputed : reused).add("source-weather");
+        (destinationChanged ? recomputed : reused).add("destination-geocoding");
+        (storedDestinationWeather == null ? recomputed : reused).add("destination-weather");
+        
+        if (routeInputsChanged) {
+            Map<String, Object> recommendations = aiRecommendationService.getTravelRecommendation(
+                request.getSourceCity(), request.getDestinationCity(),
+                source.coordsResolved() ? source.coords() : null,
+                destination.coordsResolved() ? destination.coords() : null,
+                request.getPassengers(), request.getBudget(),
+                request.getComfortLevel().name(),
+                source.weather().getCondition(),
+                destination.weather().getCondition(),
+                deadline.forStage("route")
+            );
+            applyRouteRecommendation(trip, recommendations);
+            recomputed.add("route");
+        } else {
+            reused.add("route");
+        }
+        
+        if (placesFuture != null) {
+            trip.setRecommendedPlaces(placesFuture.join().getRecommendedPlaces());
+            recomputed.add("places");
+        } else {
+            reused.add("places");
+        }
+        
+        trip.setSourceCity(request.getSourceCity());
+        trip.setDestinationCity(request.getDestinationCity());
+        trip.setSourceLat(source.coords().get("lat"));
+        trip.setSourceLng(source.coords().get("lng"));
+        trip.setDestLat(destination.coords().get("lat"));
+        trip.setDestLng(destination.coords().get("lng"));
+        applyWeather(trip, source.weather(), destination.weather());
+        trip.setPassengers(request.getPassengers());
+        trip.setBudget(request.getBudget());
+        trip.setComfortLevel(request.getComfortLevel());
+        trip.setTripDuration(request.getTripDuration());
+        trip.setStartDate(request.getStartDate());
+        trip.setInterests(joinInterests(request.getInterests()));
+        applyForecast(trip, startTripForecast(request, destination.coords(), deadline).join());
+        
+        Trip savedTrip = tripRepository.save(trip);
+        savedTrip.setDegradedStages(deadline.getDegradedStages());
+        log.info("Trip {} re-planned, reused: {}, recomputed: {}", tripId, reused, recomputed);
+        
+        TripResponseDTO dto = new TripResponseDTO(savedTrip);
+        dto.setReusedStages(reused);
+        dto.setRecomputedStages(recomputed);
+        if (savedTrip.getConversationId() != null) {
+            dto.setHasChatHistory(!chatHistoryRepository.findByConversationId(savedTrip.getConversationId()).isEmpty());
+        }
+        return dto;
     }
 
+    /**
+     * Fetches the destination's daily forecast for the trip dates; trips without a start date get none
+     */
+    private CompletableFuture<List<DailyForecastDTO>> startTripForecast(TripRequest request,
+            Map<String, Double> destCoords, RequestDeadline deadline) {
+        if (request.getStartDate() == null) {
+            return CompletableFuture.completedFuture(List.of());
+        }
+        int days = request.getTripDuration() != null ? request.getTripDuration() : 1;
+        return weatherService.getTripForecast(destCoords.get("lat"), destCoords.get("lng"),
+                        request.getStartDate(), days, deadline.forStage("forecast"))
+                .toFuture();
+    }
+
+    private TripRequest mergeReplanRequest(Trip trip, TripReplanRequest changes) {
+        TripRequest request = new TripRequest(
+                changes.getSourceCity() != null ? changes.getSourceCity() : trip.getSourceCity(),
+                changes.getDestinationCity() != null ? changes.getDestinationCity() : trip.getDestinationCity(),
+                changes.getPassengers() != null ? changes.getPassengers() : trip.getPassengers(),
+                changes.getBudget() != null ? changes.getBudget() : trip.getBudget(),
+                changes.getComfortLevel() != null ? changes.getComfortLevel() : trip.getComfortLevel());
+        request.setInterests(changes.getInterests() != null ? changes.getInterests() : splitInterests(trip.getInterests()));
+        Integer tripDuration = changes.getTripDuration() != null ? changes.getTripDuration() : trip.getTripDuration();
+        request.setTripDuration(tripDuration != null ? tripDuration : DEFAULT_TRIP_DURATION);
+        request.setStartDate(changes.getStartDate() != null ? changes.getStartDate() : trip.getStartDate());
+        return request;
+    }
+
+    /**
+     * Stored coordinates with the stored weather, or freshly fetched weather when none was kept
+     */
+    private Mono<CityContext> storedCityContext(Double lat, Double lng, WeatherAnalysis storedWeather, String label,
+            RequestDeadline deadline) {
+        Map<String, Double> coords = Map.of("lat", lat, "lng", lng);
+        if (storedWeather != null) {
+            return Mono.just(new CityContext(coords, true, storedWeather, 0, 0));
+        }
+        long weatherStart = System.currentTimeMillis();
+        return weatherService.getWeatherAnalysis(lat, lng, deadline.forStage(label + "-weather"))
+                .onErrorReturn(getDefaultWeatherAnalysis())
+                .map(weather -> new CityContext(coords, true, weather, 0, System.currentTimeMillis() - weatherStart));
+    }
+
+    private void applyRouteRecommendation(Trip trip, Map<String, Object> recommendations) {
+        trip.setRecommendedMode((String) recommendations.get("recommendedMode"));
+        
+        // Handle both Integer and Double for distance
+        Object distanceObj = recommendations.get("distanceEstimate");
+        if (distanceObj instanceof Integer) {
+            trip.setDistanceEstimate(((Integer) distanceObj).doubleValue());
+        } else {
+            trip.setDistanceEstimate((Double) distanceObj);
+        }
+        
+        // Handle both Integer and Double for confidence score
+        Object confidenceObj = recommendations.get("confidenceScore");
+        if (confidenceObj instanceof Integer) {
+            trip.setConfidenceScore(((Integer) confidenceObj).doubleValue());
+        } else {
+            trip.setConfidenceScore((Double) confidenceObj);
+        }
+    }
+
+    private String formatWeather(WeatherAnalysis weather) {
+        return "Temp: " + weather.getTemperature() + "°C, " + 
+               weather.getCondition() + ", Wind: " + 
+               weather.getWindSpeed() + " km/h";
+    }
+
+    /**
+     * Stores the weather both as the display summary and as structured data for re-plans
+     */
+    private void applyWeather(Trip trip, WeatherAnalysis sourceWeather, WeatherAnalysis destinationWeather) {
+        trip.setSourceWeather(formatWeather(sourceWeather));
+        trip.setDestinationWeather(formatWeather(destinationWeather));
+        trip.setSourceWeatherData(writeWeather(sourceWeather));
+        trip.setDestinationWeatherData(writeWeather(destinationWeather));
+    }
+
+    private String writeWeather(WeatherAnalysis weather) {
+        try {
+            return objectMapper.writeValueAsString(weather);
+        } catch (JsonProcessingException e) {
+            log.warn("Could not serialize weather analysis: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Reads back the structured weather written by applyWeather; null when there is none
+     */
+    private WeatherAnalysis readWeather(String weatherData) {
+        if (weatherData == null) {
+            return null;
+        }
+        try {
+            return objectMapper.readValue(weatherData, WeatherAnalysis.class);
+        } catch (JsonProcessingException e) {
+            log.warn("Could not read stored weather analysis: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Stores the forecast with the trip, so reading a trip never waits on the weather service
+     */
+    private void applyForecast(Trip trip, List<DailyForecastDTO> forecast) {
+        trip.setForecast(forecast);
+        try {
+            trip.setForecastData(forecast.isEmpty() ? null : objectMapper.writeValueAsString(forecast));
+        } catch (JsonProcessingException e) {
+            log.warn("Could not serialize trip forecast: {}", e.getMessage());
+            trip.setForecastData(null);
+        }
+    }
+
+    /**
+     * Reads back the forecast written by applyForecast; trips without one get an empty forecast
+     */
+    private void loadForecast(Trip trip) {
+        if (trip.getForecastData() == null) {
+            return;
+        }
+        try {
+            trip.setForecast(objectMapper.readValue(trip.getForecastData(), FORECAST_TYPE));
+        } catch (JsonProcessingException e) {
+            log.warn("Could not read stored forecast of trip {}: {}", trip.getId(), e.getMessage());
+        }
+    }
+
+    private String joinInterests(List<String> interests) {
+        return interests == null || interests.isEmpty() ? null : String.join(",", interests);
+    }
+
+    private List<String> splitInterests(String interests) {
+        return interests == null ? null : List.of(interests.split(","));
+    }
+
+    /**
+     * Geocodes both cities concurrently, then fetches their weather in one batched request.
+     * Each city keeps its own geocoding and weather stage for degradation reporting.
+     */
+    private Mono<Tuple2<CityContext, CityContext>> resolveCities(String sourceCity, String destinationCity,
+            RequestDeadline deadline) {
+        return Mono.zip(
+                    geocodingService.resolveCoordinates(sourceCity, deadline.forStage("source-geocoding")).elapsed(),
+                    geocodingService.resolveCoordinates(destinationCity, deadline.forStage("destination-geocoding")).elapsed())
+                .flatMap(located -> {
+                    GeocodeBatchResultDTO sourceLocation = located.getT1().getT2();
+                    GeocodeBatchResultDTO destinationLocation = located.getT2().getT2();
+                    return weatherService.getWeatherAnalyses(
+                                    List.of(weatherPointOf(sourceLocation), weatherPointOf(destinationLocation)),
+                                    List.of(deadline.forStage("source-weather"), deadline.forStage("destination-weather")))
+                            .elapsed()
+                            .map(weathers -> Tuples.of(
+                                    new CityContext(coordsOf(sourceLocation), sourceLocation.isResolved(),
+                                            weathers.getT2().get(0), located.getT1().getT1(), weathers.getT1()),
+                                    new CityContext(coordsOf(destinationLocation), destinationLocation.isResolved(),
+                                            weathers.getT2().get(1), located.getT2().getT1(), weathers.getT1())));
+                });
+    }
+
+    /**
+     * Geocodes a single city and then fetches its weather, recording how long each stage took.
+     */
+    private Mono<CityContext> resolveCity(String city, String label, RequestDeadline deadline) {
+        return Mono.defer(() -> {
+            long geocodeStart = System.currentTimeMillis();
+            return geocodingService.resolveCoordinates(city, deadline.forStage(label + "-geocoding"))
+                    .flatMap(location -> {
+                        long geocodeMs = System.currentTimeMillis() - geocodeStart;
+                        Map<String, Double> coords = coordsOf(location);
+                        long weatherStart = System.currentTimeMillis();
+                        return weatherService.getWeatherAnalysis(coords.get("lat"), coords.get("lng"),
+                                        deadline.forStage(label + "-weather"))
+                                .doOnError(error -> log.warn("Weather API failed for {}, using default", label))
+                                .onErrorReturn(getDefaultWeatherAnalysis())
+                                .map(weather -> new CityContext(coords, location.isResolved(), weather, geocodeMs,
+                                        System.currentTimeMillis() - weatherStart));
+                    });
+        });
+    }
+
+    private Map<String, Double> coordsOf(GeocodeBatchResultDTO location) {
+        return Map.of("lat", location.getLat(), "lng", location.getLng());
+    }
+
+    /**
+     * Fallback coordinates of an unresolved city are only approximate, so it gets no weather lookup
+     */
+    private Map<String, Double> weatherPointOf(GeocodeBatchResultDTO location) {
+        return location.isResolved() ? coordsOf(location) : Map.of();
+    }
+
+    private void addCity(Map<String, String> cities, String city) {
+        if (city != null && !city.isBlank()) {
+            cities.putIfAbsent(normalizeCity(city), city.trim());
+        }
+    }
+
+    private String normalizeCity(String city) {
+        return city == null ? "" : city.trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+    }
+
+    private record CityContext(Map<String, Double> coords, boolean coordsResolved, WeatherAnalysis weather,
+            long geocodeMs, long weatherMs) {}
+
     private WeatherAnalysis getDefaultWeatherAnalysis() {
         WeatherAnalysis analysis = new WeatherAnalysis();
         analysis.setTemperature(20.0);
@@ -183,6 +703,7 @@ public class TripService {
         
         return trips.stream()
             .map(trip -> {
+                loadForecast(trip);
                 TripResponseDTO dto = new TripResponseDTO(trip);
                 
                 // Calculate hasChatHistory properly
@@ -209,6 +730,7 @@ public class TripService {
             throw new RuntimeException("Access denied");
         }
         
+        loadForecast(trip);
         TripResponseDTO dto = new TripResponseDTO(trip);
         
         // Calculate hasChatHistory
@@ -258,7 +780,7 @@ public class TripService {
             """,
             request.getDestinationCity(), 
             request.getInterests() != null ? String.join(", ", request.getInterests()) : "general",
-            request.getTripDuration() != null ? request.getTripDuration() : 3,
+            request.getTripDuration() != null ? request.getTripDuration() : DEFAULT_TRIP_DURATION,
             request.getBudget(),
             request.getPassengers());
     }
@@ -0,0 +1,160 @@
+package com.travelplanner.backend.service;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.travelplanner.backend.dto.WeatherAnalysis;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import reactor.core.publisher.Mono;
+
+/**
+ * Cache of current-weather analyses keyed on a rounded lat/lng cell. Open-Meteo refreshes
+ * current conditions on a fixed cadence, so every entry expires at the next update boundary
+ * rather than a fixed time after it was loaded. Concurrent misses for the same cell share
+ * one upstream call; failed loads are not cached.
+ */
+@Component
+public class WeatherCache {
+
+    private final AsyncCache<GeoCell, WeatherAnalysis> cache;
+    private final AsyncCache<ForecastKey, DailyForecastSeries> forecasts;
+    private final double precision;
+    private final long updateIntervalMillis;
+    private final Clock clock;
+
+    @Autowired
+    public WeatherCache(MeterRegistry meterRegistry,
+            @Value("${app.weather-cache.precision:0.1}") double precision,
+            @Value("${app.weather-cache.update-interval:15m}") Duration updateInterval,
+            @Value("${app.weather-cache.max-size:5000}") long maxSize,
+            @Value("${app.weather-cache.forecast-ttl:1h}") Duration forecastTtl) {
+        this(meterRegistry, precision, updateInterval, maxSize, forecastTtl, Clock.systemUTC());
+    }
+
+    WeatherCache(MeterRegistry meterRegistry, double precision, Duration updateInterval, long maxSize,
+            Duration forecastTtl, Clock clock) {
+        this.clock = clock;
+        this.precision = precision;
+        this.updateIntervalMillis = updateInterval.toMillis();
+        this.cache = Caffeine.newBuilder()
+                .expireAfter(new UpdateBoundaryExpiry())
+                .maximumSize(maxSize)
+                .recordStats()
+                .buildAsync();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache.synchronous(), "weather");
+
+        this.forecasts = Caffeine.newBuilder()
+                .expireAfterWrite(forecastTtl)
+                .maximumSize(maxSize)
+                .recordStats()
+                .buildAsync();
+        CaffeineCacheMetrics.monitor(meterRegistry, forecasts.synchronous(), "weatherForecast");
+    }
+
+    /**
+     * Rounds a coordinate pair to its cell; lookups for any point in the cell share an entry
+     */
+    public GeoCell cellOf(double lat, double lng) {
+        return new GeoCell(Math.round(lat / precision), Math.round(lng / precision));
+    }
+
+    public double centerLat(GeoCell cell) {
+        return Math.round(cell.latIndex() * precision * 1e6) / 1e6;
+    }
+
+    public double centerLng(GeoCell cell) {
+        return Math.round(cell.lngIndex() * precision * 1e6) / 1e6;
+    }
+
+    /**
+     * Returns the cached analysis for the cell, loading it with {@code loader} on a miss.
+     * Cancelling the returned Mono does not cancel the shared load.
+     */
+    public Mono<WeatherAnalysis> get(GeoCell cell, Function<GeoCell, Mono<WeatherAnalysis>> loader) {
+        return Mono.fromFuture(cache.get(cell, (key, executor) -> loader.apply(key).toFuture()), true);
+    }
+
+    /**
+     * Returns cached analyses for all cells, loading every missing cell with a single call to
+     * {@code loader}. Cells the loader leaves out are absent from the result.
+     */
+    public Mono<Map<GeoCell, WeatherAnalysis>> getAll(Collection<GeoCell> cells,
+            Function<List<GeoCell>, Mono<Map<GeoCell, WeatherAnalysis>>> loader) {
+        return Mono.fromFuture(cache.getAll(cells,
+                (missing, executor) -> loader.apply(List.<GeoCell>copyOf(missing)).toFuture()), true);
+    }
+
+    /**
+     * Returns the daily forecast series issued today for the cell, loading it on a miss. One
+     * series covers the whole forecast horizon, so every trip to the cell within it shares a fetch.
+     */
+    public Mono<DailyForecastSeries> getForecast(GeoCell cell, Function<GeoCell, Mono<DailyForecastSeries>> loader) {
+        ForecastKey key = new ForecastKey(cell, LocalDate.now(clock));
+        return Mono.fromFuture(forecasts.get(key, (k, executor) -> loader.apply(k.cell()).toFuture()), true);
+    }
+
+    public long invalidateAll() {
+        long size = cache.synchronous().estimatedSize() + forecasts.synchronous().estimatedSize();
+        cache.synchronous().invalidateAll();
+        forecasts.synchronous().invalidateAll();
+        return size;
+    }
+
+    public Map<String, Object> getStats() {
+        CacheStats stats = cache.synchronous().stats();
+        return Map.of(
+            "size", cache.synchronous().estimatedSize(),
+            "hitCount", stats.hitCount(),
+            "missCount", stats.missCount(),
+            "hitRate", stats.hitRate(),
+            "evictionCount", stats.evictionCount()
+        );
+    }
+
+    /**
+     * Time left until the next multiple of the update interval since the epoch
+     */
+    long nanosUntilNextUpdate() {
+        long now = clock.millis();
+        long next = (now / updateIntervalMillis + 1) * updateIntervalMillis;
+        return Duration.ofMillis(next - now).toNanos();
+    }
+
+    public record GeoCell(long latIndex, long lngIndex) {}
+
+    // Forecasts are keyed on the day they were issued so they roll over at midnight UTC
+    private record ForecastKey(GeoCell cell, LocalDate issuedOn) {}
+
+    private final class UpdateBoundaryExpiry implements Expiry<GeoCell, WeatherAnalysis> {
+
+        @Override
+        public long expireAfterCreate(GeoCell key, WeatherAnalysis value, long currentTime) {
+            return nanosUntilNextUpdate();
+        }
+
+        @Override
+        public long expireAfterUpdate(GeoCell key, WeatherAnalysis value, long currentTime, long currentDuration) {
+            return nanosUntilNextUpdate();
+        }
+
+        @Override
+        public long expireAfterRead(GeoCell key, WeatherAnalysis value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
@@ -1,24 +1,79 @@
 package com.travelplanner.backend.service;
 
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
 
-import com.travelplanner.backend.dto.CurrentWeather;
+import com.travelplanner.backend.dto.DailyForecastDTO;
+import com.travelplanner.backend.dto.OpenMeteoCurrentResponse;
+import com.travelplanner.backend.dto.OpenMeteoCurrentResponse.CurrentWeather;
+import com.travelplanner.backend.dto.OpenMeteoDailyResponse;
 import com.travelplanner.backend.dto.WeatherAnalysis;
-import com.travelplanner.backend.dto.WeatherResponse;
+import com.travelplanner.backend.service.WeatherCache.GeoCell;
 
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.reactor.circuitbreaker.operator.CircuitBreakerOperator;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 @Service
 public class WeatherService {
     
+    private static final Logger log = LoggerFactory.getLogger(WeatherService.class);
+    
+    private static final int BATCH_CONCURRENCY = 2;
+    
+    // Open-Meteo's maximum daily forecast horizon
+    private static final int FORECAST_DAYS = 16;
+    private static final String DAILY_VARIABLES =
+            "weathercode,temperature_2m_max,temperature_2m_min,windspeed_10m_max,precipitation_sum";
+    
     private final WebClient webClient;
+    private final WeatherCache weatherCache;
+    // Shared by all Open-Meteo calls; while open they fail at once and the callers serve defaults
+    private final CircuitBreaker openMeteoBreaker;
+    
+    @Value("${app.weather.batch-size:50}")
+    private int batchSize;
 
-    public WeatherService(WebClient webClient) {
+    public WeatherService(@Qualifier("openMeteoWebClient") WebClient webClient, WeatherCache weatherCache,
+                          CircuitBreakerRegistry circuitBreakerRegistry) {
         this.webClient = webClient;
+        this.weatherCache = weatherCache;
+        this.openMeteoBreaker = circuitBreakerRegistry.circuitBreaker("open-meteo");
     }
 
     public Mono<WeatherAnalysis> getWeatherAnalysis(double lat, double lng) {
+        return getWeatherAnalysis(lat, lng, RequestDeadline.none());
+    }
+
+    /**
+     * Fetches weather within the remaining request budget, using default data when it runs out.
+     * Results are shared per geocell until Open-Meteo's next update.
+     */
+    public Mono<WeatherAnalysis> getWeatherAnalysis(double lat, double lng, RequestDeadline deadline) {
+        return deadline.bound(weatherCache.get(weatherCache.cellOf(lat, lng),
+                        cell -> fetchWeatherAnalysis(weatherCache.centerLat(cell), weatherCache.centerLng(cell))))
+                .onErrorResume(error -> {
+                    deadline.markDegraded();
+                    return Mono.just(getDefaultWeatherAnalysis());
+                });
+    }
+
+    private Mono<WeatherAnalysis> fetchWeatherAnalysis(double lat, double lng) {
         return webClient.get()
                 .uri(uriBuilder -> uriBuilder
                         .scheme("https")
@@ -31,9 +86,187 @@ public class WeatherService {
                         .queryParam("timezone", "auto")
                         .build())
                 .retrieve()
-                .bodyToMono(WeatherResponse.class)
+                .bodyToMono(OpenMeteoCurrentResponse.class)
                 .map(this::analyzeWeather)
-                .onErrorReturn(getDefaultWeatherAnalysis());
+                .transformDeferred(CircuitBreakerOperator.of(openMeteoBreaker));
+    }
+    
+    public Mono<List<WeatherAnalysis>> getWeatherAnalyses(List<Map<String, Double>> points) {
+        return getWeatherAnalyses(points, RequestDeadline.none());
+    }
+
+    /**
+     * Weather for several points in one Open-Meteo request (chunked for large inputs); results
+     * keep the input order. Points without data get default weather and mark the stage degraded;
+     * so do points without valid coordinates, which are left out of the request.
+     */
+    public Mono<List<WeatherAnalysis>> getWeatherAnalyses(List<Map<String, Double>> points, RequestDeadline deadline) {
+        return getWeatherAnalyses(points, Collections.nCopies(points.size(), deadline));
+    }
+
+    /**
+     * Same as above with one stage per point, so a point that falls back marks only its own
+     * stage degraded. The stages must share one deadline; the first one bounds the request.
+     */
+    public Mono<List<WeatherAnalysis>> getWeatherAnalyses(List<Map<String, Double>> points,
+            List<RequestDeadline> pointStages) {
+        if (points.isEmpty()) {
+            return Mono.just(List.of());
+        }
+        // Open-Meteo rejects the whole request for one bad coordinate, so those are never sent
+        List<GeoCell> cells = points.stream()
+                .map(point -> hasValidCoordinates(point) ? weatherCache.cellOf(point.get("lat"), point.get("lng")) : null)
+                .toList();
+        List<GeoCell> requested = cells.stream().filter(Objects::nonNull).distinct().toList();
+        Mono<Map<GeoCell, WeatherAnalysis>> lookup = requested.isEmpty()
+                ? Mono.just(Map.of())
+                : pointStages.get(0).bound(weatherCache.getAll(requested, this::fetchWeatherAnalyses));
+        return lookup
+                .map(byCell -> {
+                    List<WeatherAnalysis> analyses = new ArrayList<>(cells.size());
+                    for (int i = 0; i < cells.size(); i++) {
+                        WeatherAnalysis analysis = cells.get(i) == null ? null : byCell.get(cells.get(i));
+                        if (analysis == null) {
+                            pointStages.get(i).markDegraded();
+                            analysis = getDefaultWeatherAnalysis();
+                        }
+                        analyses.add(analysis);
+                    }
+                    return analyses;
+                })
+                .onErrorResume(error -> {
+                    log.warn("Batched weather lookup for {} points failed: {}", points.size(), error.getMessage());
+                    pointStages.forEach(RequestDeadline::markDegraded);
+                    return Mono.just(cells.stream().map(cell -> getDefaultWeatherAnalysis()).toList());
+                });
+    }
+
+    private static boolean hasValidCoordinates(Map<String, Double> point) {
+        Double lat = point.get("lat");
+        Double lng = point.get("lng");
+        return lat != null && lng != null && Math.abs(lat) <= 90 && Math.abs(lng) <= 180;
+    }
+
+    private Mono<Map<GeoCell, WeatherAnalysis>> fetchWeatherAnalyses(List<GeoCell> cells) {
+        List<List<GeoCell>> chunks = new ArrayList<>();
+        for (int i = 0; i < cells.size(); i += batchSize) {
+            chunks.add(cells.subList(i, Math.min(cells.size(), i + batchSize)));
+        }
+        return Flux.fromIterable(chunks)
+                .flatMapSequential(this::fetchWeatherChunk, BATCH_CONCURRENCY)
+                .collectMap(Map.Entry::getKey, Map.Entry::getValue);
+    }
+
+    /**
+     * A chunk Open-Meteo rejects is split in halves and retried, so only the points it
+     * objects to end up without data
+     */
+    private Flux<Map.Entry<GeoCell, WeatherAnalysis>> fetchWeatherChunk(List<GeoCell> chunk) {
+        return requestWeatherChunk(chunk)
+                .onErrorResume(WebClientResponseException.BadRequest.class, error -> {
+                    if (chunk.size() == 1) {
+                        log.warn("Open-Meteo rejected {},{}: {}", weatherCache.centerLat(chunk.get(0)),
+                                weatherCache.centerLng(chunk.get(0)), error.getResponseBodyAsString());
+                        return Flux.empty();
+                    }
+                    int half = chunk.size() / 2;
+                    return Flux.concat(fetchWeatherChunk(chunk.subList(0, half)),
+                            fetchWeatherChunk(chunk.subList(half, chunk.size())));
+                });
+    }
+
+    /**
+     * Open-Meteo answers a comma-separated coordinate list with an array in the same order
+     */
+    private Flux<Map.Entry<GeoCell, WeatherAnalysis>> requestWeatherChunk(List<GeoCell> chunk) {
+        String latitudes = chunk.stream()
+                .map(cell -> String.valueOf(weatherCache.centerLat(cell)))
+                .collect(Collectors.joining(","));
+        String longitudes = chunk.stream()
+                .map(cell -> String.valueOf(weatherCache.centerLng(cell)))
+                .collect(Collectors.joining(","));
+        return webClient.get()
+                .uri(uriBuilder -> uriBuilder
+                        .scheme("https")
+                        .host("api.open-meteo.com")
+                        .path("/v1/forecast")
+                        .queryParam("latitude", latitudes)
+                        .queryParam("longitude", longitudes)
+                        .queryParam("current_weather", "true")
+                        .queryParam("temperature_unit", "celsius")
+                        .queryParam("timezone", "auto")
+                        .build())
+                .retrieve()
+                .bodyToFlux(OpenMeteoCurrentResponse.class)
+                .take(chunk.size())
+                .index()
+                .map(indexed -> Map.entry(chunk.get(indexed.getT1().intValue()), analyzeWeather(indexed.getT2())))
+                .transformDeferred(CircuitBreakerOperator.of(openMeteoBreaker));
+    }
+    
+    /**
+     * Daily forecast for the trip's dates, one entry per day inside the forecast horizon
+     * (days further out are left out). Scored with the same rules as current weather.
+     */
+    public Mono<List<DailyForecastDTO>> getTripForecast(double lat, double lng, LocalDate startDate, int days,
+            RequestDeadline deadline) {
+        return deadline.bound(weatherCache.getForecast(weatherCache.cellOf(lat, lng), this::fetchDailyForecast))
+                .map(series -> {
+                    List<DailyForecastDTO> forecast = new ArrayList<>();
+                    for (int day = 0; day < Math.max(1, days); day++) {
+                        int index = series.indexOf(startDate.plusDays(day));
+                        if (index >= 0) {
+                            forecast.add(analyzeDay(series, index));
+                        }
+                    }
+                    return forecast;
+                })
+                .onErrorResume(error -> {
+                    log.warn("Forecast lookup failed: {}", error.getMessage());
+                    deadline.markDegraded();
+                    return Mono.just(List.of());
+                });
+    }
+
+    private Mono<DailyForecastSeries> fetchDailyForecast(GeoCell cell) {
+        return webClient.get()
+                .uri(uriBuilder -> uriBuilder
+                        .scheme("https")
+                        .host("api.open-meteo.com")
+                        .path("/v1/forecast")
+                        .queryParam("latitude", weatherCache.centerLat(cell))
+                        .queryParam("longitude", weatherCache.centerLng(cell))
+                        .queryParam("daily", DAILY_VARIABLES)
+                        .queryParam("forecast_days", FORECAST_DAYS)
+                        .queryParam("temperature_unit", "celsius")
+                        .queryParam("timezone", "auto")
+                        .build())
+                .retrieve()
+                .bodyToMono(OpenMeteoDailyResponse.class)
+                .map(response -> DailyForecastSeries.from(response.daily()))
+                .transformDeferred(CircuitBreakerOperator.of(openMeteoBreaker));
+    }
+
+    private DailyForecastDTO analyzeDay(DailyForecastSeries series, int index) {
+        double temperatureMax = series.temperatureMaxAt(index);
+        double temperatureMin = series.temperatureMinAt(index);
+        double windSpeed = series.windSpeedMaxAt(index);
+        int weatherCode = series.weatherCodeAt(index);
+        // Score the day on its more extreme temperature: the heat rule on the maximum, cold rules on the minimum
+        double temperature = temperatureMax > 40 ? temperatureMax : temperatureMin;
+        
+        DailyForecastDTO day = new DailyForecastDTO();
+        day.setDate(series.dateAt(index));
+        day.setTemperatureMin(temperatureMin);
+        day.setTemperatureMax(temperatureMax);
+        day.setWindSpeedMax(windSpeed);
+        day.setPrecipitation(series.precipitationAt(index));
+        day.setWeatherCode(weatherCode);
+        day.setCondition(getWeatherCondition(weatherCode));
+        day.setTravelAdvisory(getTravelAdvisory(temperature, windSpeed, weatherCode));
+        day.setSafetyScore(calculateSafetyScore(temperature, windSpeed, weatherCode));
+        day.setSuitableForTravel(isSuitableForTravel(temperature, windSpeed, weatherCode));
+        return day;
     }
     
     private WeatherAnalysis getDefaultWeatherAnalysis() {
@@ -48,38 +281,38 @@ public class WeatherService {
         return analysis;
     }
 
-    private WeatherAnalysis analyzeWeather(WeatherResponse response) {
-        CurrentWeather current = response.getCurrentWeather(); // ✅ Fixed
+    private WeatherAnalysis analyzeWeather(OpenMeteoCurrentResponse response) {
+        CurrentWeather current = response.currentWeather();
         WeatherAnalysis analysis = new WeatherAnalysis();
         
-        analysis.setTemperature(current.getTemperature());
-        analysis.setWindSpeed(current.getWindspeed()); // This will work with @JsonProperty
-        analysis.setWeatherCode(current.getWeathercode()); // This will work with @JsonProperty
-        analysis.setCondition(getWeatherCondition(current.getWeathercode()));
-        analysis.setTravelAdvisory(getTravelAdvisory(current));
-        analysis.setSafetyScore(calculateSafetyScore(current));
-        analysis.setSuitableForTravel(isSuitableForTravel(current));
+        analysis.setTemperature(current.temperature());
+        analysis.setWindSpeed(current.windspeed());
+        analysis.setWeatherCode(current.weathercode());
+        analysis.setCondition(getWeatherCondition(current.weathercode()));
+        analysis.setTravelAdvisory(getTravelAdvisory(current.temperature(), current.windspeed(), current.weathercode()));
+        analysis.setSafetyScore(calculateSafetyScore(current.temperature(), current.windspeed(), current.weathercode()));
+        analysis.setSuitableForTravel(isSuitableForTravel(current.temperature(), current.windspeed(), current.weathercode()));
         
         return analysis;
     }
 
-    private String getTravelAdvisory(CurrentWeather weather) {
-        if (weather.getWindspeed() > 50) return "High winds - avoid travel";
-        if (weather.getTemperature() < -10) return "Extreme cold - travel not recommended";
-        if (weather.getWeathercode() > 80) return "Severe weather - postpone travel";
+    private String getTravelAdvisory(double temperature, double windSpeed, int weatherCode) {
+        if (windSpeed > 50) return "High winds - avoid travel";
+        if (temperature < -10) return "Extreme cold - travel not recommended";
+        if (weatherCode > 80) return "Severe weather - postpone travel";
         return "Weather conditions are good for travel";
     }
 
-    private double calculateSafetyScore(CurrentWeather weather) {
+    private double calculateSafetyScore(double temperature, double windSpeed, int weatherCode) {
         double score = 100;
-        if (weather.getWindspeed() > 30) score -= 30;
-        if (weather.getTemperature() < -5 || weather.getTemperature() > 40) score -= 25;
-        if (weather.getWeathercode() > 60) score -= 20;
+        if (windSpeed > 30) score -= 30;
+        if (temperature < -5 || temperature > 40) score -= 25;
+        if (weatherCode > 60) score -= 20;
         return Math.max(0, score);
     }
 
-    private boolean isSuitableForTravel(CurrentWeather weather) {
-        return calculateSafetyScore(weather) > 70;
+    private boolean isSuitableForTravel(double temperature, double windSpeed, int weatherCode) {
+        return calculateSafetyScore(temperature, windSpeed, weatherCode) > 70;
     }
 
     private String getWeatherCondition(int weatherCode) {
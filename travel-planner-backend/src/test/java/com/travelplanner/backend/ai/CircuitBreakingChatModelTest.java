@@ -0,0 +1,157 @@
+package com.travelplanner.backend.ai;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.InterruptedIOException;
+import java.net.SocketTimeoutException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.chat.messages.AssistantMessage;
+import org.springframework.ai.chat.model.ChatModel;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.ai.chat.model.Generation;
+import org.springframework.ai.chat.prompt.Prompt;
+
+import com.travelplanner.backend.config.LlmProperties;
+
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import reactor.core.publisher.Mono;
+
+class CircuitBreakingChatModelTest {
+
+    private static final ChatResponse OK = new ChatResponse(List.of(new Generation(new AssistantMessage("ok"))));
+
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+
+    @AfterEach
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private static CircuitBreaker breaker(String name) {
+        return CircuitBreaker.of(name, CircuitBreakerConfig.custom()
+                .slidingWindowSize(2)
+                .minimumNumberOfCalls(2)
+                .failureRateThreshold(50)
+                .build());
+    }
+
+    private static ChatModel throwing(RuntimeException error) {
+        return prompt -> {
+            throw error;
+        };
+    }
+
+    @Test
+    void readTimeoutsOpenTheBreaker() {
+        CircuitBreaker breaker = breaker("timeouts");
+        ChatModel model = new CircuitBreakingChatModel(
+                throwing(new IllegalStateException("I/O error", new SocketTimeoutException("Read timed out"))), breaker);
+
+        assertThrows(IllegalStateException.class, () -> model.call(new Prompt("one")));
+        assertThrows(IllegalStateException.class, () -> model.call(new Prompt("two")));
+
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+    }
+
+    @Test
+    void interruptsThatAreNotCancellationsCountAsFailures() {
+        CircuitBreaker breaker = breaker("interrupted");
+        ChatModel model = new CircuitBreakingChatModel(prompt -> {
+            // e.g. a request deadline interrupting the calling thread
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("I/O error", new InterruptedIOException());
+        }, breaker);
+
+        assertThrows(IllegalStateException.class, () -> model.call(new Prompt("one")));
+        Thread.interrupted();
+
+        assertEquals(1, breaker.getMetrics().getNumberOfFailedCalls());
+    }
+
+    @Test
+    void cancelledCallsAreNotHeldAgainstTheEndpoint() throws Exception {
+        CircuitBreaker breaker = breaker("cancelled");
+        AtomicBoolean cancelled = new AtomicBoolean();
+        ChatModel model = new CircuitBreakingChatModel(prompt -> {
+            cancelled.set(true);
+            throw new IllegalStateException("I/O error", new InterruptedIOException());
+        }, breaker);
+
+        Future<ChatResponse> call = executor.submit(
+                CallCancellation.cancellable(() -> model.call(new Prompt("one")), cancelled));
+
+        assertThrows(ExecutionException.class, () -> call.get(1, TimeUnit.SECONDS));
+        assertEquals(0, breaker.getMetrics().getNumberOfFailedCalls());
+        assertEquals(0, breaker.getMetrics().getNumberOfBufferedCalls());
+    }
+
+    @Test
+    void losingHedgeIsNotRecordedAsAFailure() throws Exception {
+        LlmProperties.Routing routing = new LlmProperties.Routing();
+        routing.setHealthCheckInterval(Duration.ofHours(1));
+        routing.setSlowStart(Duration.ZERO);
+        LlmProperties.Hedging hedging = new LlmProperties.Hedging();
+        hedging.setMinDelay(Duration.ofMillis(20));
+        hedging.setMaxDelay(Duration.ofMillis(20));
+
+        CircuitBreaker slowBreaker = breaker("slow");
+        CountDownLatch abandoned = new CountDownLatch(1);
+        ChatModel slow = new CircuitBreakingChatModel(prompt -> {
+            try {
+                Thread.sleep(5_000);
+                return OK;
+            } catch (InterruptedException e) {
+                throw new IllegalStateException("I/O error", new InterruptedIOException());
+            } finally {
+                abandoned.countDown();
+            }
+        }, slowBreaker);
+        CircuitBreaker fastBreaker = breaker("fast");
+        ChatModel fast = new CircuitBreakingChatModel(prompt -> OK, fastBreaker);
+
+        RoutingChatModel.Backend slowBackend = new RoutingChatModel.Backend("slow", slow, slowBreaker,
+                () -> Mono.just(true), routing);
+        RoutingChatModel.Backend fastBackend = new RoutingChatModel.Backend("fast", fast, fastBreaker,
+                () -> Mono.just(true), routing);
+        // Sends the first attempt to the slow backend so the fast one answers the hedge
+        RoutingChatModel router = new RoutingChatModel(List.of(slowBackend, fastBackend), routing,
+                new SimpleMeterRegistry()) {
+            private boolean first = true;
+
+            @Override
+            public synchronized Backend select(Backend exclude) {
+                if (first && exclude == null) {
+                    first = false;
+                    return slowBackend;
+                }
+                return super.select(exclude);
+            }
+        };
+        try {
+            HedgingChatModel model = new HedgingChatModel(router, hedging, executor, new SimpleMeterRegistry());
+
+            assertEquals(OK, model.call(new Prompt("hedged")));
+
+            assertTrue(abandoned.await(1, TimeUnit.SECONDS));
+            assertEquals(0, slowBreaker.getMetrics().getNumberOfFailedCalls());
+            assertEquals(1, fastBreaker.getMetrics().getNumberOfSuccessfulCalls());
+        } finally {
+            router.close();
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package com.travelplanner.backend.ai;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+class HedgingChatModelTest {
+
+    @Test
+    void emptyWindowHasNoPercentile() {
+        HedgingChatModel.LatencyWindow window = new HedgingChatModel.LatencyWindow(10);
+
+        assertEquals(0, window.size());
+        assertEquals(0, window.percentile(0.95));
+    }
+
+    @Test
+    void percentileUsesTheNearestRank() {
+        HedgingChatModel.LatencyWindow window = new HedgingChatModel.LatencyWindow(100);
+        // Recorded out of order on purpose
+        for (long sample = 100; sample >= 1; sample--) {
+            window.record(sample);
+        }
+
+        assertEquals(100, window.size());
+        assertEquals(50, window.percentile(0.50));
+        assertEquals(95, window.percentile(0.95));
+        assertEquals(99, window.percentile(0.99));
+        assertEquals(100, window.percentile(1.0));
+        assertEquals(1, window.percentile(0.0));
+    }
+
+    @Test
+    void percentileOfAPartlyFilledWindowOnlyCountsRecordedSamples() {
+        HedgingChatModel.LatencyWindow window = new HedgingChatModel.LatencyWindow(10);
+        window.record(30);
+        window.record(10);
+        window.record(20);
+
+        assertEquals(3, window.size());
+        // ceil(0.5 * 3) = 2nd smallest; the unused slots (zeros) must not count
+        assertEquals(20, window.percentile(0.5));
+        assertEquals(30, window.percentile(0.95));
+    }
+
+    @Test
+    void windowKeepsOnlyTheMostRecentSamples() {
+        HedgingChatModel.LatencyWindow window = new HedgingChatModel.LatencyWindow(3);
+        window.record(1000);
+        window.record(1000);
+        window.record(1000);
+        window.record(10);
+        window.record(20);
+        window.record(30);
+
+        assertEquals(3, window.size());
+        assertEquals(30, window.percentile(1.0));
+    }
+
+    @Test
+    void budgetStartsFullAndAllowsABurst() {
+        HedgingChatModel.HedgeBudget budget = new HedgingChatModel.HedgeBudget(0.1, 2);
+
+        assertTrue(budget.trySpend());
+        assertTrue(budget.trySpend());
+        assertFalse(budget.trySpend());
+    }
+
+    @Test
+    void budgetEarnsOneHedgePerInverseRatioCalls() {
+        HedgingChatModel.HedgeBudget budget = new HedgingChatModel.HedgeBudget(0.25, 1);
+        assertTrue(budget.trySpend());
+
+        for (int call = 0; call < 3; call++) {
+            budget.earn();
+            assertFalse(budget.trySpend(), "hedge allowed after only " + (call + 1) + " calls");
+        }
+        budget.earn();
+        assertTrue(budget.trySpend());
+    }
+
+    @Test
+    void budgetNeverExceedsTheBurst() {
+        HedgingChatModel.HedgeBudget budget = new HedgingChatModel.HedgeBudget(0.5, 2);
+        for (int call = 0; call < 100; call++) {
+            budget.earn();
+        }
+        budget.refund();
+
+        assertTrue(budget.trySpend());
+        assertTrue(budget.trySpend());
+        assertFalse(budget.trySpend());
+    }
+
+    @Test
+    void refundReturnsAnUnusedHedge() {
+        HedgingChatModel.HedgeBudget budget = new HedgingChatModel.HedgeBudget(0.1, 1);
+        assertTrue(budget.trySpend());
+        assertFalse(budget.trySpend());
+
+        budget.refund();
+
+        assertTrue(budget.trySpend());
+    }
+
+    @Test
+    void burstBelowOneStillAllowsOneHedge() {
+        HedgingChatModel.HedgeBudget budget = new HedgingChatModel.HedgeBudget(0.1, 0);
+
+        assertTrue(budget.trySpend());
+        assertFalse(budget.trySpend());
+    }
+}
@@ -0,0 +1,204 @@
+package com.travelplanner.backend.ai;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.chat.messages.AssistantMessage;
+import org.springframework.ai.chat.messages.SystemMessage;
+import org.springframework.ai.chat.messages.UserMessage;
+import org.springframework.ai.chat.metadata.ChatGenerationMetadata;
+import org.springframework.ai.chat.model.ChatModel;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.ai.chat.model.Generation;
+import org.springframework.ai.chat.prompt.ChatOptions;
+import org.springframework.ai.chat.prompt.Prompt;
+
+import com.travelplanner.backend.config.LlmProperties;
+import com.travelplanner.backend.service.PromptCacheStore;
+import com.travelplanner.backend.service.PromptResponseCache;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class PromptCachingChatModelTest {
+
+    private static final ChatOptions DETERMINISTIC = ChatOptions.builder().model("llama3").temperature(0.0).build();
+
+    private final LlmProperties properties = new LlmProperties();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final PromptResponseCache cache = new PromptResponseCache(meterRegistry, properties);
+    private final Map<String, PromptResponseCache.Entry> stored = new HashMap<>();
+    private final PromptCacheStore store = new PromptCacheStore(null, cache, properties) {
+        @Override
+        public Optional<PromptResponseCache.Entry> find(String promptHash) {
+            return Optional.ofNullable(stored.get(promptHash));
+        }
+
+        @Override
+        public void save(String promptHash, PromptResponseCache.Entry entry) {
+            stored.put(promptHash, entry);
+        }
+
+        @Override
+        public void recordHit(String promptHash) {
+        }
+    };
+
+    private final AtomicInteger calls = new AtomicInteger();
+    private String answer = "Visit the Gateway of India";
+    private String finishReason = "stop";
+
+    private final ChatModel delegate = prompt -> {
+        calls.incrementAndGet();
+        ChatGenerationMetadata metadata = ChatGenerationMetadata.builder().finishReason(finishReason).build();
+        return new ChatResponse(List.of(new Generation(new AssistantMessage(answer), metadata)));
+    };
+
+    private final PromptCachingChatModel caching = new PromptCachingChatModel(delegate, cache, store,
+            properties.getCache(), meterRegistry);
+
+    private ChatModel callSite(boolean cacheSampled, Predicate<String> validator) {
+        LlmProperties.CallSite policy = new LlmProperties.CallSite();
+        policy.setEnabled(true);
+        policy.setCacheSampled(cacheSampled);
+        properties.getCache().getCallSites().put("places", policy);
+        return PromptCachingChatModel.forCallSite(caching, "places", validator);
+    }
+
+    private static Prompt prompt(String text, ChatOptions options) {
+        return new Prompt(List.of(new SystemMessage("You are a travel guide"), new UserMessage(text)), options);
+    }
+
+    private String ask(ChatModel model, String text) {
+        return model.call(prompt(text, DETERMINISTIC)).getResult().getOutput().getText();
+    }
+
+    @Test
+    void normalizationCollapsesWhitespaceAndKeepsMessageTypes() {
+        String normalized = PromptCachingChatModel.normalize(prompt("  Places in\n\tMumbai  ", DETERMINISTIC),
+                DETERMINISTIC);
+
+        assertTrue(normalized.startsWith("model=llama3|temperature=0.0|"));
+        assertTrue(normalized.endsWith("\nsystem:You are a travel guide\nuser:Places in Mumbai"));
+        assertEquals(normalized, PromptCachingChatModel.normalize(prompt("Places in Mumbai", DETERMINISTIC),
+                DETERMINISTIC));
+    }
+
+    @Test
+    void normalizationSeparatesOptionsAndRoles() {
+        ChatOptions otherModel = ChatOptions.builder().model("mistral").temperature(0.0).build();
+        Prompt asUser = prompt("Places in Mumbai", DETERMINISTIC);
+        Prompt asAssistant = new Prompt(List.of(new SystemMessage("You are a travel guide"),
+                new AssistantMessage("Places in Mumbai")), DETERMINISTIC);
+
+        assertNotEquals(PromptCachingChatModel.normalize(asUser, DETERMINISTIC),
+                PromptCachingChatModel.normalize(asUser, otherModel));
+        assertNotEquals(PromptCachingChatModel.normalize(asUser, DETERMINISTIC),
+                PromptCachingChatModel.normalize(asAssistant, DETERMINISTIC));
+    }
+
+    @Test
+    void completeAnswersAreStoredAndServedAsHits() {
+        ChatModel model = callSite(false, text -> true);
+
+        ask(model, "Places in Mumbai");
+        answer = "changed";
+
+        assertEquals("Visit the Gateway of India", ask(model, "Places  in Mumbai"));
+        assertEquals(1, calls.get());
+        assertEquals(1, stored.size());
+        assertEquals("places", stored.values().iterator().next().callSite());
+    }
+
+    @Test
+    void storedAnswersAreServedWhenMemoryMisses() {
+        ChatModel model = callSite(false, text -> true);
+        ask(model, "Places in Mumbai");
+
+        cache.invalidateAll();
+        answer = "changed";
+
+        assertEquals("Visit the Gateway of India", ask(model, "Places in Mumbai"));
+        assertEquals(1, calls.get());
+    }
+
+    @Test
+    void answersWithoutAFinishReasonAreTrusted() {
+        finishReason = null;
+        ChatModel model = callSite(false, text -> true);
+
+        ask(model, "Places in Mumbai");
+        ask(model, "Places in Mumbai");
+
+        assertEquals(1, calls.get());
+    }
+
+    @Test
+    void truncatedAnswersAreNotStored() {
+        finishReason = "length";
+        ChatModel model = callSite(false, text -> true);
+
+        ask(model, "Places in Mumbai");
+        ask(model, "Places in Mumbai");
+
+        assertEquals(2, calls.get());
+        assertTrue(stored.isEmpty());
+    }
+
+    @Test
+    void answersRejectedByTheValidatorAreNotStored() {
+        ChatModel model = callSite(false, text -> text.startsWith("["));
+
+        ask(model, "Places in Mumbai");
+        ask(model, "Places in Mumbai");
+
+        assertEquals(2, calls.get());
+        assertTrue(stored.isEmpty());
+
+        answer = "[\"Gateway of India\"]";
+        ask(model, "Places in Mumbai");
+        ask(model, "Places in Mumbai");
+        assertEquals(3, calls.get());
+    }
+
+    @Test
+    void sampledPromptsBypassUnlessTheCallSiteAllowsIt() {
+        ChatOptions sampled = ChatOptions.builder().model("llama3").temperature(0.7).build();
+        ChatModel model = callSite(false, text -> true);
+
+        model.call(prompt("Places in Mumbai", sampled));
+        model.call(prompt("Places in Mumbai", sampled));
+        assertEquals(2, calls.get());
+        assertEquals(2, meterRegistry.get("llm.cache.requests").tag("result", "bypass").counter().count());
+
+        model = callSite(true, text -> true);
+        model.call(prompt("Places in Mumbai", sampled));
+        model.call(prompt("Places in Mumbai", sampled));
+        assertEquals(3, calls.get());
+    }
+
+    @Test
+    void callsOnTheModelItselfAreNeverCached() {
+        callSite(false, text -> true);
+
+        ask(caching, "Places in Mumbai");
+        ask(caching, "Places in Mumbai");
+
+        assertEquals(2, calls.get());
+        assertTrue(stored.isEmpty());
+    }
+
+    @Test
+    void forCallSiteLeavesOtherModelsAlone() {
+        assertSame(delegate, PromptCachingChatModel.forCallSite(delegate, "places"));
+    }
+}
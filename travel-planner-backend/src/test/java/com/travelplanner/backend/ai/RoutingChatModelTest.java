@@ -0,0 +1,340 @@
+package com.travelplanner.backend.ai;
+
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.net.SocketTimeoutException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.chat.messages.AssistantMessage;
+import org.springframework.ai.chat.model.ChatModel;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.ai.chat.model.Generation;
+import org.springframework.ai.chat.prompt.Prompt;
+
+import com.travelplanner.backend.config.LlmProperties;
+
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import reactor.core.publisher.Mono;
+
+class RoutingChatModelTest {
+
+    private static final ChatResponse OK = new ChatResponse(List.of(new Generation(new AssistantMessage("ok"))));
+
+    private final List<RoutingChatModel> routers = new ArrayList<>();
+    private final ExecutorService callers = Executors.newCachedThreadPool();
+
+    @AfterEach
+    void close() {
+        routers.forEach(RoutingChatModel::close);
+        callers.shutdownNow();
+    }
+
+    private static LlmProperties.Routing settings() {
+        LlmProperties.Routing settings = new LlmProperties.Routing();
+        settings.setHealthCheckInterval(Duration.ofHours(1));
+        settings.setEjectAfterFailures(2);
+        settings.setEjectionTime(Duration.ofSeconds(30));
+        settings.setSlowStart(Duration.ZERO);
+        return settings;
+    }
+
+    private static RoutingChatModel.Backend backend(String name, ChatModel model, LlmProperties.Routing settings) {
+        return backend(name, model, CircuitBreaker.ofDefaults(name), () -> Mono.just(true), settings);
+    }
+
+    private static RoutingChatModel.Backend backend(String name, ChatModel model, CircuitBreaker circuitBreaker,
+            Supplier<Mono<Boolean>> healthCheck, LlmProperties.Routing settings) {
+        return new RoutingChatModel.Backend(name, model, circuitBreaker, healthCheck, settings);
+    }
+
+    private RoutingChatModel router(LlmProperties.Routing settings, RoutingChatModel.Backend... backends) {
+        RoutingChatModel router = new RoutingChatModel(List.of(backends), settings, new SimpleMeterRegistry());
+        routers.add(router);
+        return router;
+    }
+
+    private static ChatModel failing() {
+        return prompt -> {
+            throw new IllegalStateException("backend down");
+        };
+    }
+
+    private static ChatModel sleeping(long millis) {
+        return prompt -> {
+            try {
+                Thread.sleep(millis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return OK;
+        };
+    }
+
+    private static void assertAlwaysSelects(RoutingChatModel router, RoutingChatModel.Backend expected) {
+        for (int i = 0; i < 50; i++) {
+            assertSame(expected, router.select(null));
+        }
+    }
+
+    @Test
+    void requiresAtLeastOneBackend() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new RoutingChatModel(List.of(), settings(), new SimpleMeterRegistry()));
+    }
+
+    @Test
+    void prefersTheBackendWithFewerCallsInFlight() throws Exception {
+        LlmProperties.Routing settings = settings();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        RoutingChatModel.Backend busy = backend("busy", prompt -> {
+            started.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return OK;
+        }, settings);
+        RoutingChatModel.Backend idle = backend("idle", prompt -> OK, settings);
+        RoutingChatModel router = router(settings, busy, idle);
+
+        callers.submit(() -> busy.call(new Prompt("hold")));
+        assertTrue(started.await(1, TimeUnit.SECONDS));
+
+        assertAlwaysSelects(router, idle);
+        release.countDown();
+    }
+
+    @Test
+    void prefersTheFasterBackend() {
+        LlmProperties.Routing settings = settings();
+        RoutingChatModel.Backend slow = backend("slow", sleeping(40), settings);
+        RoutingChatModel.Backend fast = backend("fast", sleeping(1), settings);
+        RoutingChatModel router = router(settings, slow, fast);
+
+        slow.call(new Prompt("warm up"));
+        fast.call(new Prompt("warm up"));
+
+        assertAlwaysSelects(router, fast);
+    }
+
+    @Test
+    void neverSelectsTheExcludedBackend() {
+        LlmProperties.Routing settings = settings();
+        RoutingChatModel.Backend first = backend("first", prompt -> OK, settings);
+        RoutingChatModel.Backend second = backend("second", prompt -> OK, settings);
+        RoutingChatModel router = router(settings, first, second);
+
+        for (int i = 0; i < 50; i++) {
+            assertSame(second, router.select(first));
+            assertSame(first, router.select(second));
+        }
+    }
+
+    @Test
+    void ejectsABackendAfterConsecutiveFailures() {
+        LlmProperties.Routing settings = settings();
+        RoutingChatModel.Backend broken = backend("broken", failing(), settings);
+        RoutingChatModel.Backend healthy = backend("healthy", prompt -> OK, settings);
+        RoutingChatModel router = router(settings, broken, healthy);
+
+        assertThrows(IllegalStateException.class, () -> broken.call(new Prompt("one")));
+        // One failure is below eject-after-failures, so it still takes calls
+        assertSame(broken, router.select(healthy));
+        assertThrows(IllegalStateException.class, () -> broken.call(new Prompt("two")));
+
+        assertAlwaysSelects(router, healthy);
+        assertNull(router.select(healthy));
+    }
+
+    @Test
+    void successResetsTheFailureCount() {
+        LlmProperties.Routing settings = settings();
+        AtomicBoolean fail = new AtomicBoolean(true);
+        RoutingChatModel.Backend flaky = backend("flaky", prompt -> {
+            if (fail.get()) {
+                throw new IllegalStateException("flaky");
+            }
+            return OK;
+        }, settings);
+        RoutingChatModel.Backend other = backend("other", prompt -> OK, settings);
+        RoutingChatModel router = router(settings, flaky, other);
+
+        assertThrows(IllegalStateException.class, () -> flaky.call(new Prompt("one")));
+        fail.set(false);
+        flaky.call(new Prompt("two"));
+        fail.set(true);
+        assertThrows(IllegalStateException.class, () -> flaky.call(new Prompt("three")));
+
+        assertSame(flaky, router.select(other));
+    }
+
+    @Test
+    void rejectedCallsDoNotCountAsFailures() {
+        LlmProperties.Routing settings = settings();
+        CircuitBreaker breaker = CircuitBreaker.ofDefaults("rejecting");
+        RoutingChatModel.Backend rejecting = backend("rejecting", prompt -> {
+            throw CallNotPermittedException.createCallNotPermittedException(breaker);
+        }, breaker, () -> Mono.just(true), settings);
+        RoutingChatModel.Backend other = backend("other", prompt -> OK, settings);
+        RoutingChatModel router = router(settings, rejecting, other);
+
+        for (int i = 0; i < 5; i++) {
+            assertThrows(CallNotPermittedException.class, () -> rejecting.call(new Prompt("call")));
+        }
+
+        assertSame(rejecting, router.select(other));
+    }
+
+    @Test
+    void timedOutCallsCountAsFailures() {
+        LlmProperties.Routing settings = settings();
+        RoutingChatModel.Backend hanging = backend("hanging", prompt -> {
+            throw new IllegalStateException("I/O error", new SocketTimeoutException("Read timed out"));
+        }, settings);
+        RoutingChatModel.Backend other = backend("other", prompt -> OK, settings);
+        RoutingChatModel router = router(settings, hanging, other);
+
+        assertThrows(IllegalStateException.class, () -> hanging.call(new Prompt("one")));
+        assertThrows(IllegalStateException.class, () -> hanging.call(new Prompt("two")));
+
+        assertNull(router.select(other));
+    }
+
+    @Test
+    void ejectedBackendReturnsAfterTheEjectionTime() throws Exception {
+        LlmProperties.Routing settings = settings();
+        settings.setEjectionTime(Duration.ofMillis(50));
+        RoutingChatModel.Backend broken = backend("broken", failing(), settings);
+        RoutingChatModel.Backend other = backend("other", prompt -> OK, settings);
+        RoutingChatModel router = router(settings, broken, other);
+
+        assertThrows(IllegalStateException.class, () -> broken.call(new Prompt("one")));
+        assertThrows(IllegalStateException.class, () -> broken.call(new Prompt("two")));
+        assertNull(router.select(other));
+
+        Thread.sleep(80);
+
+        assertSame(broken, router.select(other));
+    }
+
+    @Test
+    void whenEveryBackendIsOutTheLeastLoadedOneStillGetsTheCall() {
+        LlmProperties.Routing settings = settings();
+        RoutingChatModel.Backend first = backend("first", failing(), settings);
+        RoutingChatModel.Backend second = backend("second", failing(), settings);
+        RoutingChatModel router = router(settings, first, second);
+        for (RoutingChatModel.Backend backend : List.of(first, second)) {
+            assertThrows(IllegalStateException.class, () -> backend.call(new Prompt("one")));
+            assertThrows(IllegalStateException.class, () -> backend.call(new Prompt("two")));
+        }
+
+        assertNull(router.select(first));
+        assertTrue(List.of(first, second).contains(router.select(null)));
+    }
+
+    @Test
+    void openCircuitBreakerTakesTheBackendOutOfRotation() {
+        LlmProperties.Routing settings = settings();
+        CircuitBreaker breaker = CircuitBreaker.ofDefaults("tripped");
+        RoutingChatModel.Backend tripped = backend("tripped", prompt -> OK, breaker, () -> Mono.just(true), settings);
+        RoutingChatModel.Backend other = backend("other", prompt -> OK, settings);
+        RoutingChatModel router = router(settings, tripped, other);
+
+        breaker.transitionToOpenState();
+        assertAlwaysSelects(router, other);
+
+        breaker.transitionToHalfOpenState();
+        assertSame(tripped, router.select(other));
+    }
+
+    @Test
+    void rejoiningBackendStartsWithASmallShare() throws Exception {
+        LlmProperties.Routing settings = settings();
+        settings.setEjectionTime(Duration.ofMillis(20));
+        settings.setSlowStart(Duration.ofMinutes(10));
+        AtomicBoolean fail = new AtomicBoolean(true);
+        RoutingChatModel.Backend rejoining = backend("rejoining", prompt -> {
+            if (fail.get()) {
+                throw new IllegalStateException("down");
+            }
+            return OK;
+        }, settings);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger holding = new AtomicInteger();
+        RoutingChatModel.Backend steady = backend("steady", prompt -> {
+            holding.incrementAndGet();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return OK;
+        }, settings);
+        RoutingChatModel router = router(settings, rejoining, steady);
+
+        assertThrows(IllegalStateException.class, () -> rejoining.call(new Prompt("one")));
+        assertThrows(IllegalStateException.class, () -> rejoining.call(new Prompt("two")));
+        fail.set(false);
+        Thread.sleep(40);
+
+        // At a tenth of its weight the rejoined backend loses to one with several calls in flight
+        for (int i = 0; i < 5; i++) {
+            callers.submit(() -> steady.call(new Prompt("hold")));
+        }
+        waitUntil(() -> holding.get() == 5);
+        assertAlwaysSelects(router, steady);
+
+        // ...but not to one that is ten times as loaded
+        for (int i = 0; i < 6; i++) {
+            callers.submit(() -> steady.call(new Prompt("hold")));
+        }
+        // Waiting on the selection itself could stop at a tie, which is broken at random
+        waitUntil(() -> holding.get() == 11);
+        assertAlwaysSelects(router, rejoining);
+        release.countDown();
+    }
+
+    @Test
+    void failedHealthCheckTakesTheBackendOutUntilItPasses() throws Exception {
+        LlmProperties.Routing settings = settings();
+        settings.setHealthCheckInterval(Duration.ofMillis(10));
+        AtomicBoolean healthy = new AtomicBoolean(false);
+        RoutingChatModel.Backend checked = backend("checked", prompt -> OK, CircuitBreaker.ofDefaults("checked"),
+                () -> Mono.just(healthy.get()), settings);
+        RoutingChatModel.Backend other = backend("other", prompt -> OK, settings);
+        RoutingChatModel router = router(settings, checked, other);
+
+        waitUntil(() -> router.select(other) == null);
+
+        healthy.set(true);
+        waitUntil(() -> router.select(other) == checked);
+    }
+
+    private static void waitUntil(Supplier<Boolean> condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(2);
+        while (!condition.get()) {
+            if (System.nanoTime() > deadline) {
+                throw new AssertionError("condition not met within 2 s");
+            }
+            Thread.sleep(5);
+        }
+    }
+}
@@ -0,0 +1,162 @@
+package com.travelplanner.backend.service;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import com.travelplanner.backend.dto.NominatimPlace;
+
+/**
+ * Per-lookup cost of picking the best Nominatim result for a requested city: the previous
+ * lowercase/split/substring scan from GeocodingService versus CityNameMatcher.
+ *
+ * Run with: mvn test-compile exec:java -Dexec.classpathScope=test
+ *   -Dexec.mainClass=com.travelplanner.backend.service.CityNameMatcherBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CityNameMatcherBenchmark {
+
+    @Param({"Mumbai", "Bengaluru", "Pondichéry", "Thiruvananthapuram"})
+    public String requestedCity;
+
+    private List<Map<String, Object>> locations;
+    private List<NominatimPlace> places;
+    private CityNameMatcher matcher;
+
+    @Setup
+    public void setUp() {
+        matcher = new CityNameMatcher(10_000);
+        // Shaped like a Nominatim /search response with addressdetails=1, best match last
+        locations = List.of(
+            location("Maharashtra, India", Map.of("state", "Maharashtra", "country", "India")),
+            location("Bangalore Urban, Karnataka, India", Map.of("county", "Bangalore Urban", "state", "Karnataka")),
+            location("Puducherry, India", Map.of("state", "Puducherry", "country", "India")),
+            location("Thiruvananthapuram District, Kerala, India",
+                    Map.of("county", "Thiruvananthapuram District", "state", "Kerala")),
+            location("Mumbai, Mumbai Suburban, Maharashtra, India",
+                    Map.of("city", "Mumbai", "county", "Mumbai Suburban", "state", "Maharashtra")),
+            location("Bengaluru, Bangalore Urban, Karnataka, India",
+                    Map.of("city", "Bengaluru", "county", "Bangalore Urban", "state", "Karnataka")),
+            location("Pondicherry, Puducherry, India", Map.of("city", "Pondicherry", "state", "Puducherry")),
+            location("Thiruvananthapuram, Kerala, India", Map.of("city", "Thiruvananthapuram", "state", "Kerala"))
+        );
+        places = locations.stream().map(CityNameMatcherBenchmark::toPlace).toList();
+    }
+
+    @Benchmark
+    public Map<String, Object> legacyScan() {
+        return LegacyMatcher.findBestCityMatch(requestedCity, locations);
+    }
+
+    @Benchmark
+    public NominatimPlace cityNameMatcher() {
+        return matcher.bestMatch(requestedCity, places, GeocodingService::candidateNames);
+    }
+
+    private static Map<String, Object> location(String displayName, Map<String, Object> address) {
+        return Map.of("display_name", displayName, "address", address, "lat", "0", "lon", "0");
+    }
+
+    @SuppressWarnings("unchecked")
+    private static NominatimPlace toPlace(Map<String, Object> location) {
+        Map<String, Object> address = (Map<String, Object>) location.get("address");
+        return new NominatimPlace(0, 0, (String) location.get("display_name"), "city",
+                new NominatimPlace.Address((String) address.get("city"), (String) address.get("town"),
+                        (String) address.get("village"), (String) address.get("municipality"),
+                        (String) address.get("county"), (String) address.get("state"),
+                        (String) address.get("country")));
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(CityNameMatcherBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+
+    /**
+     * The matching logic GeocodingService used before CityNameMatcher, kept as the baseline
+     */
+    static final class LegacyMatcher {
+
+        @SuppressWarnings("unchecked")
+        static Map<String, Object> findBestCityMatch(String requestedCity, List<Map<String, Object>> locations) {
+            String requestedLower = requestedCity.toLowerCase().trim();
+
+            for (Map<String, Object> location : locations) {
+                try {
+                    Map<String, Object> address = (Map<String, Object>) location.get("address");
+                    if (address == null) continue;
+
+                    String city = (String) address.get("city");
+                    String town = (String) address.get("town");
+                    String village = (String) address.get("village");
+                    String municipality = (String) address.get("municipality");
+                    String county = (String) address.get("county");
+                    String state = (String) address.get("state");
+
+                    String actualPlace = city != null ? city :
+                                       town != null ? town :
+                                       village != null ? village :
+                                       municipality != null ? municipality :
+                                       county != null ? county : state;
+
+                    if (actualPlace != null) {
+                        String actualLower = actualPlace.toLowerCase();
+                        if (actualLower.equals(requestedLower)) {
+                            return location;
+                        }
+                        if (actualLower.contains(requestedLower) || requestedLower.contains(actualLower)) {
+                            return location;
+                        }
+                        if (hasSimilarWords(actualLower, requestedLower)) {
+                            return location;
+                        }
+                    }
+
+                    String displayName = (String) location.get("display_name");
+                    if (displayName != null && displayName.toLowerCase().contains(requestedLower)) {
+                        return location;
+                    }
+                } catch (Exception e) {
+                    continue;
+                }
+            }
+            return null;
+        }
+
+        private static boolean hasSimilarWords(String str1, String str2) {
+            String[] words1 = str1.split("\\s+");
+            String[] words2 = str2.split("\\s+");
+
+            for (String word1 : words1) {
+                for (String word2 : words2) {
+                    if (word1.length() > 3 && word2.length() > 3 &&
+                        (word1.contains(word2) || word2.contains(word1))) {
+                        return true;
+                    }
+                }
+            }
+            return false;
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package com.travelplanner.backend.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+class CityNameMatcherTest {
+
+    private final CityNameMatcher matcher = new CityNameMatcher(100);
+
+    private double score(String requested, String candidate) {
+        return CityNameMatcher.score(matcher.compile(requested), matcher.compile(candidate));
+    }
+
+    @Test
+    void foldingStripsAccentsPunctuationAndDoubledVowels() {
+        assertEquals("pondichery", CityNameMatcher.fold("Pondichéry"));
+        assertEquals("sao paulo", CityNameMatcher.fold("  São -- Paulo! "));
+        assertEquals("st john s", CityNameMatcher.fold("St. John's"));
+        assertEquals("chenai", CityNameMatcher.fold("CHENAAI"));
+        // Only vowels collapse
+        assertEquals("chennai", CityNameMatcher.fold("Chennai"));
+        assertEquals("", CityNameMatcher.fold("..."));
+    }
+
+    @Test
+    void identicalFoldedNamesAreExact() {
+        assertEquals(CityNameMatcher.EXACT, score("Pondichéry", "pondichery"));
+        assertEquals(CityNameMatcher.EXACT, score("Chennaai", "Chennai"));
+        assertEquals(CityNameMatcher.EXACT, score("New  Delhi", "new-delhi"));
+    }
+
+    @Test
+    void allTokensOfTheShorterNameIsATokenMatch() {
+        assertEquals(CityNameMatcher.TOKEN_MATCH, score("Mumbai", "Mumbai Suburban"));
+        assertEquals(CityNameMatcher.TOKEN_MATCH, score("Greater Mumbai", "Mumbai"));
+        // A token must match whole, not as a prefix
+        assertEquals(0.436, score("Navi Mumbai", "Mumbai City"), 1e-3);
+    }
+
+    @Test
+    void otherwiseScoresTheTrigramOverlapBelowATokenMatch() {
+        // 15 shared of 17 + 18 padded trigrams, scaled by 0.8
+        assertEquals(0.8 * 30 / 35, score("Tiruvananthapuram", "Thiruvananthapuram"), 1e-9);
+        assertEquals(0.178, score("Bengaluru", "Bangalore"), 1e-3);
+        assertEquals(0, score("Goa", "Pune"));
+    }
+
+    @Test
+    void emptyNamesNeverMatch() {
+        assertEquals(0, score(null, "Mumbai"));
+        assertEquals(0, score("Mumbai", ""));
+        assertEquals(0, score("", ""));
+    }
+
+    @Test
+    void compiledNamesAreReused() {
+        assertSame(matcher.compile("Mumbai"), matcher.compile("Mumbai"));
+    }
+
+    @Test
+    void bestMatchPicksTheHighestScoringCandidate() {
+        List<String> candidates = List.of("Thiruvallur", "Thiruvananthapuram", "Trivandrum");
+
+        assertEquals("Thiruvananthapuram", matcher.bestMatch("Tiruvananthapuram", candidates, List::of));
+    }
+
+    @Test
+    void candidatesAreScoredOnTheirBestName() {
+        Map<String, List<String>> names = Map.of(
+                "district", List.of("Bangalore Urban", "Karnataka"),
+                "city", List.of("Bengaluru", "Bangalore"));
+
+        assertEquals("city", matcher.bestMatch("Bangalore", List.of("district", "city"), names::get));
+    }
+
+    @Test
+    void bestMatchIsNullBelowTheMinimumScore() {
+        assertNull(matcher.bestMatch("Bengaluru", List.of("Bangalore", "Mangalore"), List::of));
+        assertNull(matcher.bestMatch("Mumbai", List.<String>of(), List::of));
+    }
+
+    @Test
+    void tiesKeepTheEarlierCandidate() {
+        List<String> candidates = List.of("Hyderabad Deccan", "Hyderabad District");
+
+        assertEquals("Hyderabad Deccan", matcher.bestMatch("Hyderabad", candidates, List::of));
+    }
+}
@@ -0,0 +1,140 @@
+package com.travelplanner.backend.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class GazetteerIndexTest {
+
+    @TempDir
+    Path dir;
+
+    /**
+     * One GeoNames main-table row; only the columns the index reads are filled in
+     */
+    private static String row(String name, String asciiName, double lat, double lng, String country, String population) {
+        String[] columns = new String[19];
+        Arrays.fill(columns, "");
+        columns[0] = "1";
+        columns[1] = name;
+        columns[2] = asciiName;
+        columns[4] = String.valueOf(lat);
+        columns[5] = String.valueOf(lng);
+        columns[8] = country;
+        columns[14] = population;
+        return String.join("\t", columns);
+    }
+
+    private Path source(String... rows) throws IOException {
+        Path source = dir.resolve("cities.txt");
+        Files.write(source, List.of(rows), StandardCharsets.UTF_8);
+        return source;
+    }
+
+    @Test
+    void roundTripsEntriesThroughTheMappedIndex() throws IOException {
+        Path source = source(
+                row("Mumbai", "Mumbai", 19.07283, 72.88261, "IN", "12691836"),
+                row("Paris", "Paris", 48.85341, 2.3488, "FR", "2138551"));
+
+        GazetteerIndex index = GazetteerIndex.open(source, dir.resolve("cities.idx"));
+
+        assertEquals(2, index.size());
+        GazetteerIndex.Match mumbai = index.lookup("Mumbai");
+        assertNotNull(mumbai);
+        assertEquals("mumbai", mumbai.name());
+        assertEquals(19.07283, mumbai.lat(), 1e-4);
+        assertEquals(72.88261, mumbai.lng(), 1e-4);
+        assertEquals(12691836, mumbai.population());
+        assertEquals("IN", mumbai.countryCode());
+        assertEquals("FR", index.lookup("paris").countryCode());
+    }
+
+    @Test
+    void mostPopulousCityWinsAmongDuplicateNames() throws IOException {
+        Path source = source(
+                row("Springfield", "Springfield", 42.1015, -72.58981, "US", "155929"),
+                row("Springfield", "Springfield", 39.80172, -89.64371, "US", "116565"),
+                row("Springfield", "Springfield", 37.21533, -93.29824, "US", "166810"));
+
+        GazetteerIndex.Match match = GazetteerIndex.open(source, dir.resolve("cities.idx")).lookup("Springfield");
+
+        assertEquals(166810, match.population());
+        assertEquals(37.21533, match.lat(), 1e-4);
+    }
+
+    @Test
+    void matchesAccentedNamesCaseAndWhitespaceInsensitively() throws IOException {
+        Path source = source(row("São Paulo", "Sao Paulo", -23.5475, -46.63611, "BR", "10021295"));
+
+        GazetteerIndex index = GazetteerIndex.open(source, dir.resolve("cities.idx"));
+
+        // The ASCII name equals the normalized name, so only one entry is written
+        assertEquals(1, index.size());
+        assertNotNull(index.lookup("sao paulo"));
+        assertNotNull(index.lookup("  SÃO   Paulo "));
+    }
+
+    @Test
+    void onlyExactNamesMatch() throws IOException {
+        Path source = source(row("Springfield", "Springfield", 42.1015, -72.58981, "US", "155929"));
+
+        GazetteerIndex index = GazetteerIndex.open(source, dir.resolve("cities.idx"));
+
+        assertNull(index.lookup("Spring"));
+        assertNull(index.lookup("Springfields"));
+        assertNull(index.lookup("Atlantis"));
+        assertNull(index.lookup(" "));
+        assertNull(index.lookup(null));
+    }
+
+    @Test
+    void skipsMalformedRowsAndKeepsMissingCountriesEmpty() throws IOException {
+        Path source = source(
+                "too\tfew\tcolumns",
+                row("Broken", "Broken", 0, 0, "XX", "not-a-number"),
+                row("Nowhere", "Nowhere", 1.5, 2.5, "", ""));
+
+        GazetteerIndex index = GazetteerIndex.open(source, dir.resolve("cities.idx"));
+
+        assertEquals(1, index.size());
+        GazetteerIndex.Match match = index.lookup("Nowhere");
+        assertEquals(0, match.population());
+        assertNull(match.countryCode());
+    }
+
+    @Test
+    void rebuildsTheIndexWhenTheSourceIsNewer() throws IOException {
+        Path index = dir.resolve("cities.idx");
+        Path source = source(row("Paris", "Paris", 48.85341, 2.3488, "FR", "2138551"));
+        GazetteerIndex.open(source, index);
+        Files.setLastModifiedTime(index, FileTime.from(Instant.now().minusSeconds(60)));
+
+        source(row("Lyon", "Lyon", 45.74846, 4.84671, "FR", "472317"));
+        GazetteerIndex reopened = GazetteerIndex.open(source, index);
+
+        assertNull(reopened.lookup("Paris"));
+        assertNotNull(reopened.lookup("Lyon"));
+    }
+
+    @Test
+    void rejectsFilesThatAreNotAnIndex() throws IOException {
+        Path index = dir.resolve("cities.idx");
+        Files.write(index, new byte[16]);
+
+        assertThrows(IllegalStateException.class, () -> GazetteerIndex.open(dir.resolve("missing.txt"), index));
+    }
+}
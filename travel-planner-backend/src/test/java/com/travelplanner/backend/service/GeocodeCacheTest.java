@@ -0,0 +1,112 @@
+package com.travelplanner.backend.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Test;
+
+import com.travelplanner.backend.dto.GeocodeResult;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import reactor.core.publisher.Mono;
+
+class GeocodeCacheTest {
+
+    private static final GeocodeResult MUMBAI = GeocodeResult.found(19.07, 72.88, "Mumbai, India", "India", "city");
+
+    private final AtomicLong nanos = new AtomicLong();
+    private final AtomicInteger loads = new AtomicInteger();
+    private final GeocodeCache cache = new GeocodeCache(new SimpleMeterRegistry(),
+            Duration.ofDays(30), Duration.ofHours(1), Duration.ofMinutes(1), 100, nanos::get);
+
+    private GeocodeResult lookup(String city, GeocodeResult result) {
+        return cache.get(city, key -> {
+            loads.incrementAndGet();
+            return Mono.just(result);
+        }).block();
+    }
+
+    private void advance(Duration duration) {
+        nanos.addAndGet(duration.toNanos());
+    }
+
+    @Test
+    void hitsAreServedForTheHitTtl() {
+        assertSame(MUMBAI, lookup("Mumbai", MUMBAI));
+
+        advance(Duration.ofDays(29));
+        assertSame(MUMBAI, lookup("Mumbai", GeocodeResult.notFound()));
+        assertEquals(1, loads.get());
+
+        advance(Duration.ofDays(2));
+        lookup("Mumbai", MUMBAI);
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void missesExpireAfterTheMissTtl() {
+        assertFalse(lookup("Atlantis", GeocodeResult.notFound()).isFound());
+
+        advance(Duration.ofMinutes(59));
+        lookup("Atlantis", GeocodeResult.notFound());
+        assertEquals(1, loads.get());
+
+        advance(Duration.ofMinutes(2));
+        assertSame(MUMBAI, lookup("Atlantis", MUMBAI));
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void upstreamFailuresExpireAfterTheErrorTtl() {
+        assertTrue(lookup("Pune", GeocodeResult.unavailable()).isUnavailable());
+
+        advance(Duration.ofSeconds(30));
+        lookup("Pune", GeocodeResult.unavailable());
+        assertEquals(1, loads.get());
+
+        advance(Duration.ofSeconds(31));
+        lookup("Pune", MUMBAI);
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void readsDoNotExtendTheTtl() {
+        lookup("Atlantis", GeocodeResult.notFound());
+        for (int i = 0; i < 5; i++) {
+            advance(Duration.ofMinutes(13));
+            lookup("Atlantis", GeocodeResult.notFound());
+        }
+
+        // Read at 13, 26, 39 and 52 minutes; reloaded at 65
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void putReplacesAFailureWithTheHitTtl() {
+        lookup("Mumbai", GeocodeResult.unavailable());
+
+        cache.put("Mumbai", MUMBAI);
+        advance(Duration.ofDays(1));
+
+        assertSame(MUMBAI, lookup("Mumbai", GeocodeResult.unavailable()));
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void keysAreNormalizedCityNames() {
+        lookup("New Delhi", MUMBAI);
+        lookup("  new   DELHI ", MUMBAI);
+        assertEquals(1, loads.get());
+
+        assertTrue(cache.invalidate("NEW DELHI"));
+        assertFalse(cache.invalidate("New Delhi"));
+        lookup("New Delhi", MUMBAI);
+        assertEquals(2, loads.get());
+    }
+}
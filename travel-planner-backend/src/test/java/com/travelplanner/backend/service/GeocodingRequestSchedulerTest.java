@@ -0,0 +1,128 @@
+package com.travelplanner.backend.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import com.travelplanner.backend.dto.GeocodeResult;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import reactor.core.publisher.Mono;
+
+class GeocodingRequestSchedulerTest {
+
+    private GeocodingRequestScheduler scheduler;
+
+    @AfterEach
+    void shutdown() {
+        if (scheduler != null) {
+            scheduler.shutdown();
+        }
+    }
+
+    private GeocodingRequestScheduler scheduler(double ratePerSecond, int burst, int maxQueueSize, Duration maxWait) {
+        scheduler = new GeocodingRequestScheduler(new SimpleMeterRegistry(), ratePerSecond, burst, maxQueueSize, maxWait);
+        return scheduler;
+    }
+
+    private static Supplier<Mono<GeocodeResult>> counting(AtomicInteger calls, GeocodeResult result) {
+        return () -> {
+            calls.incrementAndGet();
+            return Mono.just(result);
+        };
+    }
+
+    @Test
+    void burstIsSentImmediatelyAndTheRestAtTheRefillRate() throws Exception {
+        scheduler(10, 2, 100, Duration.ofSeconds(5));
+        AtomicInteger calls = new AtomicInteger();
+        GeocodeResult result = GeocodeResult.found(1, 2, "City", "Country", "city");
+
+        long start = System.nanoTime();
+        CompletableFuture<GeocodeResult> first = scheduler.submit("a", counting(calls, result)).toFuture();
+        CompletableFuture<GeocodeResult> second = scheduler.submit("b", counting(calls, result)).toFuture();
+        CompletableFuture<GeocodeResult> third = scheduler.submit("c", counting(calls, result)).toFuture();
+
+        assertTrue(first.isDone());
+        assertTrue(second.isDone());
+        assertFalse(third.isDone());
+        assertEquals(1, scheduler.getQueueLength());
+
+        assertSame(result, third.get(2, TimeUnit.SECONDS));
+        long waitedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        // One token every 100 ms at 10 per second
+        assertTrue(waitedMillis >= 80, "third lookup waited only " + waitedMillis + " ms");
+        assertEquals(3, calls.get());
+        assertEquals(0, scheduler.getQueueLength());
+    }
+
+    @Test
+    void duplicateQueuedKeysShareOneLookup() throws Exception {
+        scheduler(20, 1, 100, Duration.ofSeconds(5));
+        AtomicInteger calls = new AtomicInteger();
+        GeocodeResult result = GeocodeResult.found(1, 2, "City", "Country", "city");
+
+        // Uses up the only token so the next lookups have to queue
+        scheduler.submit("first", counting(new AtomicInteger(), result)).toFuture().get(1, TimeUnit.SECONDS);
+        CompletableFuture<GeocodeResult> one = scheduler.submit("paris", counting(calls, result)).toFuture();
+        CompletableFuture<GeocodeResult> two = scheduler.submit("paris", counting(calls, result)).toFuture();
+        assertEquals(1, scheduler.getQueueLength());
+
+        assertSame(result, one.get(2, TimeUnit.SECONDS));
+        assertSame(result, two.get(2, TimeUnit.SECONDS));
+        assertEquals(1, calls.get());
+    }
+
+    @Test
+    void emptyLookupCompletesAsNotFound() throws Exception {
+        scheduler(10, 1, 100, Duration.ofSeconds(5));
+
+        GeocodeResult result = scheduler.submit("nowhere", Mono::empty).toFuture().get(1, TimeUnit.SECONDS);
+
+        assertFalse(result.isFound());
+        assertFalse(result.isUnavailable());
+    }
+
+    @Test
+    void lookupsBeyondTheQueueSizeAreRejected() throws Exception {
+        scheduler(0.01, 1, 1, Duration.ofSeconds(5));
+        GeocodeResult result = GeocodeResult.notFound();
+
+        scheduler.submit("a", counting(new AtomicInteger(), result)).toFuture().get(1, TimeUnit.SECONDS);
+        scheduler.submit("b", counting(new AtomicInteger(), result)).toFuture();
+        CompletableFuture<GeocodeResult> rejected = scheduler.submit("c", counting(new AtomicInteger(), result)).toFuture();
+
+        ExecutionException error = assertThrows(ExecutionException.class, () -> rejected.get(1, TimeUnit.SECONDS));
+        assertInstanceOf(RejectedExecutionException.class, error.getCause());
+    }
+
+    @Test
+    void lookupsWaitingLongerThanTheMaximumTimeOut() throws Exception {
+        scheduler(0.01, 1, 100, Duration.ofMillis(50));
+        AtomicInteger calls = new AtomicInteger();
+        GeocodeResult result = GeocodeResult.notFound();
+
+        scheduler.submit("a", counting(new AtomicInteger(), result)).toFuture().get(1, TimeUnit.SECONDS);
+        CompletableFuture<GeocodeResult> queued = scheduler.submit("b", counting(calls, result)).toFuture();
+
+        ExecutionException error = assertThrows(ExecutionException.class, () -> queued.get(2, TimeUnit.SECONDS));
+        assertInstanceOf(TimeoutException.class, error.getCause());
+        assertEquals(0, calls.get());
+        assertEquals(0, scheduler.getQueueLength());
+    }
+}
@@ -0,0 +1,111 @@
+package com.travelplanner.backend.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import com.travelplanner.backend.config.RouteRuleProperties;
+
+class RouteEstimationServiceTest {
+
+    // Mumbai, Pune, Goa and Delhi: about 150, 514 and 1435 km of road from Mumbai
+    private static final double MUMBAI_LAT = 19.0760, MUMBAI_LNG = 72.8777;
+    private static final double PUNE_LAT = 18.5204, PUNE_LNG = 73.8567;
+    private static final double GOA_LAT = 15.4909, GOA_LNG = 73.8278;
+    private static final double DELHI_LAT = 28.6139, DELHI_LNG = 77.2090;
+
+    private final RouteRuleProperties rules = new RouteRuleProperties();
+    private final RouteEstimationService service = new RouteEstimationService(rules);
+
+    @Test
+    void roadDistanceIsTheGreatCircleTimesTheRoadFactor() {
+        // One degree of longitude on the equator is 111.19 km
+        assertEquals(139.0, service.estimateRoadDistance(0, 0, 0, 1));
+        assertEquals(150.2, service.estimateRoadDistance(MUMBAI_LAT, MUMBAI_LNG, PUNE_LAT, PUNE_LNG));
+        assertEquals(0.0, service.estimateRoadDistance(MUMBAI_LAT, MUMBAI_LNG, MUMBAI_LAT, MUMBAI_LNG));
+
+        rules.setRoadFactor(1.0);
+        assertEquals(111.2, service.estimateRoadDistance(0, 0, 0, 1));
+    }
+
+    @Test
+    void firstMatchingRuleWins() {
+        Map<String, Object> shortComfortable = service.estimate(MUMBAI_LAT, MUMBAI_LNG, PUNE_LAT, PUNE_LNG,
+                2, 4000, "COMFORT");
+        Map<String, Object> shortEconomy = service.estimate(MUMBAI_LAT, MUMBAI_LNG, PUNE_LAT, PUNE_LNG,
+                2, 4000, "ECONOMY");
+
+        assertEquals("car", shortComfortable.get("recommendedMode"));
+        assertEquals(0.9, shortComfortable.get("confidenceScore"));
+        assertEquals(150.2, shortComfortable.get("distanceEstimate"));
+        assertEquals("bus", shortEconomy.get("recommendedMode"));
+    }
+
+    @Test
+    void budgetIsCountedPerPassenger() {
+        // 14,000 for two passengers clears the 6,000 luxury flight threshold; for three it does not
+        Map<String, Object> two = service.estimate(MUMBAI_LAT, MUMBAI_LNG, GOA_LAT, GOA_LNG, 2, 14000, "LUXURY");
+        Map<String, Object> three = service.estimate(MUMBAI_LAT, MUMBAI_LNG, GOA_LAT, GOA_LNG, 3, 14000, "LUXURY");
+
+        assertEquals("flight", two.get("recommendedMode"));
+        assertEquals("train", three.get("recommendedMode"));
+    }
+
+    @Test
+    void longTripsFlyOnlyWhenTheBudgetAllows() {
+        assertEquals("flight", service.estimate(MUMBAI_LAT, MUMBAI_LNG, DELHI_LAT, DELHI_LNG,
+                1, 5000, "ECONOMY").get("recommendedMode"));
+        assertEquals("train", service.estimate(MUMBAI_LAT, MUMBAI_LNG, DELHI_LAT, DELHI_LNG,
+                1, 3000, "ECONOMY").get("recommendedMode"));
+    }
+
+    @Test
+    void reasoningQuotesTheTripsOwnNumbers() {
+        Map<String, Object> recommendation = service.estimate(MUMBAI_LAT, MUMBAI_LNG, DELHI_LAT, DELHI_LNG,
+                2, 10000, "COMFORT");
+
+        assertEquals("Long distance and the budget covers a flight (about 1435 km, ₹5000 per passenger)",
+                recommendation.get("reasoning"));
+    }
+
+    @Test
+    void noMatchingRuleMeansNoConfidence() {
+        rules.setRules(List.of(new RouteRuleProperties.Rule("bus", 0, 100, 0, List.of(), 0.9, "Short hop")));
+
+        Map<String, Object> recommendation = service.estimate(MUMBAI_LAT, MUMBAI_LNG, PUNE_LAT, PUNE_LNG,
+                1, 1000, "ECONOMY");
+
+        assertEquals("car", recommendation.get("recommendedMode"));
+        assertEquals(0.0, recommendation.get("confidenceScore"));
+        assertFalse(service.isConfident(recommendation));
+    }
+
+    @Test
+    void confidenceIsComparedWithTheConfiguredMinimum() {
+        Map<String, Object> train = service.estimate(MUMBAI_LAT, MUMBAI_LNG, DELHI_LAT, DELHI_LNG,
+                1, 3000, "ECONOMY");
+        assertEquals(0.8, train.get("confidenceScore"));
+        assertTrue(service.isConfident(train));
+
+        rules.setMinConfidence(0.85);
+        assertFalse(service.isConfident(train));
+    }
+
+    @Test
+    void describeUsesTheFirstMatchingRuleForTheMode() {
+        assertEquals("Medium distance where the train balances comfort and cost (about 514 km, ₹2000 per passenger)",
+                service.describe("TRAIN", 514.0, 2, 4000, "LUXURY"));
+    }
+
+    @Test
+    void describeFallsBackToAGenericSentence() {
+        // No rule recommends a car for 1,435 km
+        assertEquals("Travelling by car suits this route and budget (about 1435 km, ₹2500 per passenger)",
+                service.describe("car", 1435.1, 2, 5000, "COMFORT"));
+    }
+}
@@ -0,0 +1,117 @@
+package com.travelplanner.backend.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import com.travelplanner.backend.service.RouteRecommendationCache.RouteKey;
+import com.travelplanner.backend.service.RouteRecommendationCache.WeatherClass;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class RouteRecommendationCacheTest {
+
+    private final RouteRecommendationCache cache = new RouteRecommendationCache(new SimpleMeterRegistry(),
+            Duration.ofHours(6), 100, new double[] {5000, 1000, 2500});
+
+    private RouteKey key(String source, String destination, int passengers, double budget) {
+        return cache.key(source, destination, "COMFORT", passengers, budget, "Clear sky", "Clear sky");
+    }
+
+    private static Map<String, Object> recommendation(String mode) {
+        Map<String, Object> recommendation = new HashMap<>();
+        recommendation.put("recommendedMode", mode);
+        recommendation.put("distanceEstimate", 150.2);
+        recommendation.put("reasoning", "Costs about ₹2000 per passenger");
+        return recommendation;
+    }
+
+    @Test
+    void cityNamesAreNormalized() {
+        assertEquals(key("Mumbai", "Pune", 1, 2000), key("  MUMBAI ", "pune", 1, 2000));
+        assertEquals(key("New Delhi", "Agra", 1, 2000), key("new   delhi", "Agra", 1, 2000));
+        assertNotEquals(key("Mumbai", "Pune", 1, 2000), key("Pune", "Mumbai", 1, 2000));
+    }
+
+    @Test
+    void budgetIsBandedPerPassenger() {
+        // Bands are sorted, so 1000, 2500 and 5000 split budgets into four bands
+        assertEquals(0, key("Mumbai", "Pune", 1, 999).budgetBand());
+        assertEquals(1, key("Mumbai", "Pune", 1, 1000).budgetBand());
+        assertEquals(1, key("Mumbai", "Pune", 1, 2499).budgetBand());
+        assertEquals(2, key("Mumbai", "Pune", 1, 2500).budgetBand());
+        assertEquals(3, key("Mumbai", "Pune", 1, 100000).budgetBand());
+
+        assertEquals(key("Mumbai", "Pune", 1, 1200), key("Mumbai", "Pune", 2, 4000));
+        assertNotEquals(key("Mumbai", "Pune", 1, 3000), key("Mumbai", "Pune", 2, 3000));
+        // Zero passengers counts as one
+        assertEquals(key("Mumbai", "Pune", 1, 3000), key("Mumbai", "Pune", 0, 3000));
+    }
+
+    @Test
+    void weatherIsClassifiedCoarselyAndTheWorseSideWins() {
+        assertEquals(WeatherClass.CLEAR, WeatherClass.of("Partly cloudy"));
+        assertEquals(WeatherClass.CLEAR, WeatherClass.of(null));
+        assertEquals(WeatherClass.FOG, WeatherClass.of("Foggy"));
+        assertEquals(WeatherClass.PRECIPITATION, WeatherClass.of("Rainy"));
+        assertEquals(WeatherClass.PRECIPITATION, WeatherClass.of("Snowy"));
+        assertEquals(WeatherClass.STORM, WeatherClass.of("Thunderstorm"));
+
+        RouteKey key = cache.key("Mumbai", "Pune", "COMFORT", 1, 2000, "Rainy", "Clear sky");
+        assertEquals(WeatherClass.PRECIPITATION, key.weather());
+        assertEquals(key, cache.key("Mumbai", "Pune", "COMFORT", 1, 2000, "Clear sky", "Snowy"));
+        assertNotEquals(key, cache.key("Mumbai", "Pune", "COMFORT", 1, 2000, "Foggy", "Thunderstorm"));
+    }
+
+    @Test
+    void storedEntriesDropTheRequestSpecificReasoning() {
+        RouteKey key = key("Mumbai", "Pune", 1, 2000);
+        Map<String, Object> recommendation = recommendation("car");
+        recommendation.put("confidenceScore", null);
+
+        cache.put(key, recommendation);
+
+        Map<String, Object> cached = cache.get(key);
+        assertNotNull(cached);
+        assertEquals("car", cached.get("recommendedMode"));
+        assertFalse(cached.containsKey("reasoning"));
+        assertNull(cached.get("confidenceScore"));
+        // The caller's map is left alone and the entry cannot be changed
+        assertEquals("Costs about ₹2000 per passenger", recommendation.get("reasoning"));
+        assertThrows(UnsupportedOperationException.class, () -> cached.put("reasoning", "changed"));
+    }
+
+    @Test
+    void invalidateRouteDropsOnlyThatCityPair() {
+        cache.put(key("Mumbai", "Pune", 1, 2000), recommendation("car"));
+        cache.put(key("Mumbai", "Pune", 1, 9000), recommendation("car"));
+        cache.put(key("Pune", "Mumbai", 1, 2000), recommendation("bus"));
+        cache.put(key("Mumbai", "Goa", 1, 2000), recommendation("train"));
+
+        assertEquals(2, cache.invalidateRoute(" mumbai", "PUNE", false));
+        assertNull(cache.get(key("Mumbai", "Pune", 1, 2000)));
+        assertNotNull(cache.get(key("Pune", "Mumbai", 1, 2000)));
+
+        assertEquals(1, cache.invalidateRoute("Mumbai", "Pune", true));
+        assertNull(cache.get(key("Pune", "Mumbai", 1, 2000)));
+        assertNotNull(cache.get(key("Mumbai", "Goa", 1, 2000)));
+    }
+
+    @Test
+    void invalidateAllReportsHowManyEntriesWereDropped() {
+        cache.put(key("Mumbai", "Pune", 1, 2000), recommendation("car"));
+        cache.put(key("Mumbai", "Goa", 1, 2000), recommendation("train"));
+
+        assertEquals(2, cache.invalidateAll());
+        assertNull(cache.get(key("Mumbai", "Goa", 1, 2000)));
+    }
+}
@@ -0,0 +1,229 @@
+package com.travelplanner.backend.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.travelplanner.backend.Entities.Trip;
+import com.travelplanner.backend.dto.TripRequest;
+
+class TripRequestCoalescerTest {
+
+    private final TripRequestCoalescer coalescer = new TripRequestCoalescer();
+    private final ExecutorService callers = Executors.newCachedThreadPool();
+
+    TripRequestCoalescerTest() {
+        ReflectionTestUtils.setField(coalescer, "resultTtlMs", 10_000L);
+    }
+
+    @AfterEach
+    void shutdown() {
+        callers.shutdownNow();
+    }
+
+    private static TripRequest request(String source, String destination, List<String> interests) {
+        TripRequest request = new TripRequest();
+        request.setSourceCity(source);
+        request.setDestinationCity(destination);
+        request.setPassengers(2);
+        request.setBudget(1500.0);
+        request.setComfortLevel(Trip.ComfortLevel.COMFORT);
+        request.setInterests(interests);
+        request.setTripDuration(3);
+        return request;
+    }
+
+    private Trip execute(TripRequest request, Function<Consumer<TripPlanningStage>, Trip> creator) {
+        return coalescer.execute("alice", request, RequestDeadline.none(), stage -> {}, creator);
+    }
+
+    /**
+     * Starts a computation that holds its flight open until {@code release} is counted down
+     */
+    private Future<Trip> startHeld(TripRequest request, CountDownLatch release, Trip trip,
+            AtomicInteger creations) throws InterruptedException {
+        CountDownLatch started = new CountDownLatch(1);
+        Future<Trip> leader = callers.submit(() -> execute(request, listener -> {
+            creations.incrementAndGet();
+            listener.accept(TripPlanningStage.RESOLVING_LOCATIONS);
+            started.countDown();
+            await(release);
+            return trip;
+        }));
+        assertTrue(started.await(1, TimeUnit.SECONDS));
+        return leader;
+    }
+
+    @Test
+    void identicalRequestsShareOneComputation() throws Exception {
+        AtomicInteger creations = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        Trip trip = new Trip();
+        Future<Trip> leader = startHeld(request("Mumbai", "Goa", List.of("beach", "food")), release, trip, creations);
+
+        // Same trip after normalization: case, whitespace and interest order do not matter
+        Future<Trip> follower = callers.submit(() -> execute(
+                request("  mumbai ", "GOA", List.of("Food", "beach")), listener -> {
+                    creations.incrementAndGet();
+                    return new Trip();
+                }));
+        Thread.sleep(50);
+        release.countDown();
+
+        assertSame(trip, leader.get(1, TimeUnit.SECONDS));
+        assertSame(trip, follower.get(1, TimeUnit.SECONDS));
+        assertEquals(1, creations.get());
+    }
+
+    @Test
+    void differentRequestsAreNotCoalesced() {
+        Trip toGoa = execute(request("Mumbai", "Goa", null), listener -> new Trip());
+        Trip toPune = execute(request("Mumbai", "Pune", null), listener -> new Trip());
+
+        assertNotSame(toGoa, toPune);
+    }
+
+    @Test
+    void finishedResultIsReusedOnlyWithinItsTtl() throws Exception {
+        ReflectionTestUtils.setField(coalescer, "resultTtlMs", 50L);
+        TripRequest request = request("Mumbai", "Goa", null);
+        Trip first = execute(request, listener -> new Trip());
+
+        assertSame(first, execute(request, listener -> new Trip()));
+
+        Thread.sleep(80);
+        assertNotSame(first, execute(request, listener -> new Trip()));
+    }
+
+    @Test
+    void failureReachesWaitersAndReleasesTheFlight() throws Exception {
+        TripRequest request = request("Mumbai", "Goa", null);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Future<Trip> leader = callers.submit(() -> execute(request, listener -> {
+            started.countDown();
+            await(release);
+            throw new IllegalArgumentException("Source and destination cities are required");
+        }));
+        assertTrue(started.await(1, TimeUnit.SECONDS));
+        Future<Trip> follower = callers.submit(() -> execute(request, listener -> new Trip()));
+        Thread.sleep(50);
+        release.countDown();
+
+        assertCause(IllegalArgumentException.class, leader);
+        assertCause(IllegalArgumentException.class, follower);
+
+        Trip retried = new Trip();
+        assertSame(retried, execute(request, listener -> retried));
+    }
+
+    @Test
+    void errorReleasesTheFlight() {
+        TripRequest request = request("Mumbai", "Goa", null);
+
+        assertThrows(OutOfMemoryError.class, () -> execute(request, listener -> {
+            throw new OutOfMemoryError("simulated");
+        }));
+
+        Trip retried = new Trip();
+        assertSame(retried, execute(request, listener -> retried));
+    }
+
+    @Test
+    void waiterGivesUpAtItsOwnDeadline() throws Exception {
+        TripRequest request = request("Mumbai", "Goa", null);
+        CountDownLatch release = new CountDownLatch(1);
+        Trip trip = new Trip();
+        Future<Trip> leader = startHeld(request, release, trip, new AtomicInteger());
+
+        long start = System.nanoTime();
+        assertThrows(IllegalStateException.class, () -> coalescer.execute("alice", request,
+                RequestDeadline.within(Duration.ofMillis(50)), stage -> {}, listener -> new Trip()));
+        assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(1));
+
+        // The computation itself carries on for the caller that started it
+        release.countDown();
+        assertSame(trip, leader.get(1, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void waitersSeeTheLatestStageAndLaterOnes() throws Exception {
+        TripRequest request = request("Mumbai", "Goa", null);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch followed = new CountDownLatch(1);
+        Trip trip = new Trip();
+        List<TripPlanningStage> leaderStages = new CopyOnWriteArrayList<>();
+        List<TripPlanningStage> followerStages = new CopyOnWriteArrayList<>();
+        Future<Trip> leader = callers.submit(() -> coalescer.execute("alice", request, RequestDeadline.none(),
+                leaderStages::add, listener -> {
+                    listener.accept(TripPlanningStage.RESOLVING_LOCATIONS);
+                    listener.accept(TripPlanningStage.RECOMMENDING_ROUTE);
+                    started.countDown();
+                    await(followed);
+                    listener.accept(TripPlanningStage.SAVING);
+                    return trip;
+                }));
+        assertTrue(started.await(1, TimeUnit.SECONDS));
+        Future<Trip> follower = callers.submit(() -> coalescer.execute("alice", request, RequestDeadline.none(),
+                stage -> {
+                    followerStages.add(stage);
+                    followed.countDown();
+                }, listener -> new Trip()));
+
+        assertSame(trip, follower.get(1, TimeUnit.SECONDS));
+        assertSame(trip, leader.get(1, TimeUnit.SECONDS));
+        assertEquals(List.of(TripPlanningStage.RESOLVING_LOCATIONS, TripPlanningStage.RECOMMENDING_ROUTE,
+                TripPlanningStage.SAVING), leaderStages);
+        assertEquals(List.of(TripPlanningStage.RECOMMENDING_ROUTE, TripPlanningStage.SAVING), followerStages);
+    }
+
+    @Test
+    void failingWaiterListenerDoesNotFailTheComputation() throws Exception {
+        TripRequest request = request("Mumbai", "Goa", null);
+        CountDownLatch release = new CountDownLatch(1);
+        Trip trip = new Trip();
+        Future<Trip> leader = startHeld(request, release, trip, new AtomicInteger());
+
+        Future<Trip> follower = callers.submit(() -> coalescer.execute("alice", request, RequestDeadline.none(),
+                stage -> {
+                    throw new IllegalStateException("job row gone");
+                }, listener -> new Trip()));
+        Thread.sleep(50);
+        release.countDown();
+
+        assertSame(trip, leader.get(1, TimeUnit.SECONDS));
+        assertSame(trip, follower.get(1, TimeUnit.SECONDS));
+    }
+
+    private static void assertCause(Class<? extends Throwable> expected, Future<?> call) {
+        ExecutionException e = assertThrows(ExecutionException.class, () -> call.get(1, TimeUnit.SECONDS));
+        assertEquals(expected, e.getCause().getClass());
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
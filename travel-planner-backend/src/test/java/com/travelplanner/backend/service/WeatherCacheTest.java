@@ -0,0 +1,130 @@
+package com.travelplanner.backend.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+import com.travelplanner.backend.dto.WeatherAnalysis;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import reactor.core.publisher.Mono;
+
+class WeatherCacheTest {
+
+    private final MutableClock clock = new MutableClock(Instant.parse("2025-06-01T10:00:00Z"));
+    private final WeatherCache cache = new WeatherCache(new SimpleMeterRegistry(), 0.1,
+            Duration.ofMinutes(15), 100, Duration.ofHours(1), clock);
+
+    @Test
+    void expiresAtTheNextUpdateBoundary() {
+        clock.set(Instant.parse("2025-06-01T10:05:30Z"));
+
+        assertEquals(Duration.ofSeconds(570).toNanos(), cache.nanosUntilNextUpdate());
+    }
+
+    @Test
+    void loadExactlyOnABoundaryLastsAFullInterval() {
+        clock.set(Instant.parse("2025-06-01T10:15:00Z"));
+
+        assertEquals(Duration.ofMinutes(15).toNanos(), cache.nanosUntilNextUpdate());
+    }
+
+    @Test
+    void loadJustBeforeABoundaryExpiresWithIt() {
+        clock.set(Instant.parse("2025-06-01T10:14:59.999Z"));
+
+        assertEquals(Duration.ofMillis(1).toNanos(), cache.nanosUntilNextUpdate());
+    }
+
+    @Test
+    void boundariesAreAlignedToTheEpochNotToTheLoad() {
+        WeatherCache sevenMinutes = new WeatherCache(new SimpleMeterRegistry(), 0.1,
+                Duration.ofMinutes(7), 100, Duration.ofHours(1), clock);
+        // 10:00 UTC is minute 29,146,200 since the epoch, 6 past a multiple of 7
+        clock.set(Instant.parse("2025-06-01T10:00:00Z"));
+
+        assertEquals(Duration.ofMinutes(1).toNanos(), sevenMinutes.nanosUntilNextUpdate());
+    }
+
+    @Test
+    void nearbyPointsShareACell() {
+        assertEquals(cache.cellOf(19.07, 72.88), cache.cellOf(19.0651, 72.8849));
+        assertEquals(19.1, cache.centerLat(cache.cellOf(19.07, 72.88)));
+        assertEquals(72.9, cache.centerLng(cache.cellOf(19.07, 72.88)));
+    }
+
+    @Test
+    void forecastsRollOverAtMidnightUtc() {
+        AtomicInteger loads = new AtomicInteger();
+        WeatherCache.GeoCell cell = cache.cellOf(48.85, 2.35);
+
+        clock.set(Instant.parse("2025-06-01T08:00:00Z"));
+        cache.getForecast(cell, key -> countedLoad(loads)).block();
+        clock.set(Instant.parse("2025-06-01T23:59:59Z"));
+        cache.getForecast(cell, key -> countedLoad(loads)).block();
+        assertEquals(1, loads.get());
+
+        clock.set(Instant.parse("2025-06-02T00:00:01Z"));
+        cache.getForecast(cell, key -> countedLoad(loads)).block();
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void concurrentMissesShareOneLoad() {
+        AtomicInteger loads = new AtomicInteger();
+        WeatherCache.GeoCell cell = cache.cellOf(12.97, 77.59);
+        Mono<WeatherAnalysis> slowLoad = Mono.delay(Duration.ofMillis(50)).map(tick -> new WeatherAnalysis());
+
+        Mono<WeatherAnalysis> first = cache.get(cell, key -> {
+            loads.incrementAndGet();
+            return slowLoad;
+        });
+        Mono<WeatherAnalysis> second = cache.get(cell, key -> {
+            loads.incrementAndGet();
+            return slowLoad;
+        });
+
+        assertSame(first.block(), second.block());
+        assertEquals(1, loads.get());
+    }
+
+    private static Mono<DailyForecastSeries> countedLoad(AtomicInteger loads) {
+        loads.incrementAndGet();
+        return Mono.just(DailyForecastSeries.from(null));
+    }
+
+    private static final class MutableClock extends Clock {
+        private volatile Instant now;
+
+        MutableClock(Instant now) {
+            this.now = now;
+        }
+
+        void set(Instant now) {
+            this.now = now;
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
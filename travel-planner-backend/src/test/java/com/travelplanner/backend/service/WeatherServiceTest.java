@@ -0,0 +1,154 @@
+package com.travelplanner.backend.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import com.travelplanner.backend.dto.WeatherAnalysis;
+
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import reactor.core.publisher.Mono;
+
+class WeatherServiceTest {
+
+    private final List<List<Double>> requests = new ArrayList<>();
+    private Set<Double> rejectedLatitudes = Set.of();
+
+    /**
+     * Answers like Open-Meteo: one current-weather object per requested coordinate, in request
+     * order, with the latitude as temperature so results can be traced back to their point.
+     * A request containing a rejected latitude fails as a whole with 400.
+     */
+    private final WebClient openMeteo = WebClient.builder()
+            .exchangeFunction(request -> {
+                String latitudes = UriComponentsBuilder.fromUri(request.url()).build()
+                        .getQueryParams().getFirst("latitude");
+                List<Double> requested = Arrays.stream(latitudes.split(",")).map(Double::valueOf).toList();
+                synchronized (requests) {
+                    requests.add(requested);
+                }
+                if (requested.stream().anyMatch(rejectedLatitudes::contains)) {
+                    return Mono.just(ClientResponse.create(HttpStatus.BAD_REQUEST)
+                            .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                            .body("{\"error\":true,\"reason\":\"Latitude must be in range of -90 to 90\"}")
+                            .build());
+                }
+                String body = requested.stream()
+                        .map(lat -> "{\"current_weather\":{\"temperature\":" + lat + ",\"windspeed\":5,\"weathercode\":0}}")
+                        .collect(Collectors.joining(",", "[", "]"));
+                return Mono.just(ClientResponse.create(HttpStatus.OK)
+                        .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                        .body(body)
+                        .build());
+            })
+            .build();
+
+    private WeatherService service(int batchSize) {
+        WeatherCache cache = new WeatherCache(new SimpleMeterRegistry(), 0.1, Duration.ofMinutes(15), 100,
+                Duration.ofHours(1));
+        WeatherService service = new WeatherService(openMeteo, cache, CircuitBreakerRegistry.ofDefaults());
+        ReflectionTestUtils.setField(service, "batchSize", batchSize);
+        return service;
+    }
+
+    private static Map<String, Double> point(double lat, double lng) {
+        return Map.of("lat", lat, "lng", lng);
+    }
+
+    private static List<RequestDeadline> stages(int count) {
+        RequestDeadline deadline = RequestDeadline.within(Duration.ofSeconds(5));
+        List<RequestDeadline> stages = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            stages.add(deadline.forStage("point-" + i));
+        }
+        return stages;
+    }
+
+    private static List<Double> temperatures(List<WeatherAnalysis> analyses) {
+        return analyses.stream().map(WeatherAnalysis::getTemperature).toList();
+    }
+
+    @Test
+    void resultsFollowTheInputOrderAcrossChunks() {
+        WeatherService service = service(2);
+        List<Map<String, Double>> points = List.of(
+                point(10, 1), point(20, 2), point(30, 3), point(40, 4), point(50, 5));
+
+        List<WeatherAnalysis> analyses = service.getWeatherAnalyses(points).block();
+
+        assertEquals(List.of(10.0, 20.0, 30.0, 40.0, 50.0), temperatures(analyses));
+        assertEquals(3, requests.size());
+    }
+
+    @Test
+    void pointsInTheSameCellShareOneRequestedCoordinate() {
+        WeatherService service = service(50);
+        List<Map<String, Double>> points = List.of(point(10, 1), point(30, 3), point(10.01, 1.01));
+
+        List<WeatherAnalysis> analyses = service.getWeatherAnalyses(points).block();
+
+        assertEquals(List.of(10.0, 30.0, 10.0), temperatures(analyses));
+        assertEquals(List.of(List.of(10.0, 30.0)), requests);
+    }
+
+    @Test
+    void pointsWithoutValidCoordinatesAreLeftOutOfTheRequest() {
+        WeatherService service = service(50);
+        List<Map<String, Double>> points = List.of(point(10, 1), point(95, 1), Map.of(), point(15, 200));
+        List<RequestDeadline> stages = stages(points.size());
+
+        List<WeatherAnalysis> analyses = service.getWeatherAnalyses(points, stages).block();
+
+        assertEquals(List.of(List.of(10.0)), requests);
+        assertEquals(10.0, analyses.get(0).getTemperature());
+        assertFalse(stages.get(0).isDegraded());
+        for (int i = 1; i < points.size(); i++) {
+            assertEquals(20.0, analyses.get(i).getTemperature());
+            assertTrue(stages.get(i).isDegraded());
+        }
+    }
+
+    @Test
+    void noRequestWhenNoPointIsValid() {
+        WeatherService service = service(50);
+
+        List<WeatherAnalysis> analyses = service.getWeatherAnalyses(List.of(Map.of(), point(-91, 0))).block();
+
+        assertEquals(2, analyses.size());
+        assertTrue(requests.isEmpty());
+    }
+
+    @Test
+    void rejectedChunkIsSplitSoOnlyTheOffendingPointFallsBack() {
+        WeatherService service = service(50);
+        rejectedLatitudes = Set.of(30.0);
+        List<Map<String, Double>> points = List.of(point(10, 1), point(15, 2), point(30, 3), point(40, 4));
+        List<RequestDeadline> stages = stages(points.size());
+
+        List<WeatherAnalysis> analyses = service.getWeatherAnalyses(points, stages).block();
+
+        // The default analysis reports 20 °C
+        assertEquals(List.of(10.0, 15.0, 20.0, 40.0), temperatures(analyses));
+        assertEquals(List.of(false, false, true, false),
+                stages.stream().map(RequestDeadline::isDegraded).toList());
+        assertTrue(requests.contains(List.of(30.0)));
+    }
+}